@@ -0,0 +1,83 @@
+// Teste de estresse de concorrência: muitas requisições simultâneas adicionam e removem os mesmos poucos
+// favoritos de um único cliente, parte delas repetindo a chamada com o mesmo Idempotency-Key.
+// No fim, o contador do resumo (favoritesSummary.count) precisa bater com as linhas da tabela de favoritos.
+// Pré-requisito: BrasilAPI real ou o stub (python3 loadtest/slow-brasilapi.py --delay 0).
+// Uso: k6 run loadtest/concurrent-favorites.js
+import http from 'k6/http';
+import { check, fail } from 'k6';
+import exec from 'k6/execution';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+// Poucos ISBNs para que as requisições disputem sempre as mesmas linhas.
+const ISBNS = Array.from({ length: Number(__ENV.BOOKS || 5) }, (_, i) => `978850000000${i}`);
+
+export const options = {
+    vus: Number(__ENV.VUS || 50),
+    duration: __ENV.DURATION || '30s',
+    thresholds: {
+        // 200/201/204 são as únicas respostas esperadas; qualquer 409 ou 500 indica corrida.
+        checks: ['rate==1.0'],
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const auth = http.post(`${BASE_URL}/api/v1/auth/token`,
+        JSON.stringify({ clientId: 'my-client-app', clientSecret: 's3cr3t_p@ssw0rd_f0r_@pi_cl13nt' }),
+        { headers: { 'Content-Type': 'application/json' } });
+    const headers = { 'Content-Type': 'application/json', Authorization: `Bearer ${auth.json('accessToken')}` };
+
+    // Em um banco vazio o cliente criado aqui recebe o id 1; em outro banco informe CUSTOMER_ID.
+    http.post(`${BASE_URL}/api/v1/customers`,
+        JSON.stringify({ name: 'Stress Test', email: 'stress@example.com', cpf: '52998224725' }),
+        { headers });
+
+    return { headers, customerId: __ENV.CUSTOMER_ID || 1 };
+}
+
+export default function (data) {
+    const isbn = ISBNS[Math.floor(Math.random() * ISBNS.length)];
+    const url = `${BASE_URL}/api/v1/customers/${data.customerId}/favorites/${isbn}`;
+    const add = Math.random() < 0.6;
+
+    if (Math.random() < 0.3) {
+        // Cliente que repete a mesma chamada (ex.: timeout seguido de retry): a segunda é respondida pelo cache.
+        const key = `${exec.vu.idInTest}-${exec.vu.iterationInScenario}`;
+        const params = { headers: Object.assign({ 'Idempotency-Key': key }, data.headers) };
+        const first = add ? http.post(url, null, params) : http.del(url, null, params);
+        const retry = add ? http.post(url, null, params) : http.del(url, null, params);
+        check(retry, {
+            'retry replayed': (r) => r.status === first.status && r.headers['Idempotent-Replayed'] === 'true',
+        });
+        return;
+    }
+
+    const res = add ? http.post(url, null, { headers: data.headers }) : http.del(url, null, { headers: data.headers });
+    check(res, {
+        'idempotent status': (r) => (add ? [200, 201] : [204]).includes(r.status),
+    });
+}
+
+export function teardown(data) {
+    const customer = http.get(`${BASE_URL}/api/v1/customers/${data.customerId}`, { headers: data.headers });
+    const counted = customer.json('favoritesSummary.count');
+
+    // A paginação por cursor lê as linhas da tabela de junção, sem passar pelo contador.
+    let stored = 0;
+    let cursor = '';
+    do {
+        const page = http.get(`${BASE_URL}/api/v1/customers/${data.customerId}/favorites?cursor=${cursor}&size=100`,
+            { headers: data.headers });
+        stored += page.json('content').length;
+        cursor = page.json('nextCursor');
+    } while (cursor);
+
+    console.log(`favoritesSummary.count=${counted}, stored favorites=${stored}`);
+    if (counted !== stored) {
+        fail(`favorites counter drifted: summary says ${counted}, table has ${stored}`);
+    }
+}
+
+export function handleSummary(data) {
+    return { 'loadtest/results/concurrent-favorites.json': JSON.stringify(data, null, 2) };
+}
@@ -0,0 +1,50 @@
+// Compara a latência de páginas profundas na paginação por offset e por cursor.
+// Pré-requisito: banco populado com loadtest/seed-pagination.py (ids e ISBNs sequenciais).
+// Uso: k6 run -e TARGET=customers -e MODE=offset loadtest/pagination.js
+//      k6 run -e TARGET=favorites -e MODE=cursor loadtest/pagination.js
+import http from 'k6/http';
+import encoding from 'k6/encoding';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const TARGET = __ENV.TARGET || 'customers';
+const MODE = __ENV.MODE || 'offset';
+const SIZE = Number(__ENV.SIZE || 20);
+// Páginas sorteadas entre FROM_PAGE e TO_PAGE (padrão: perto do fim da massa padrão de favoritos).
+const FROM_PAGE = Number(__ENV.FROM_PAGE || 2000);
+const TO_PAGE = Number(__ENV.TO_PAGE || 2400);
+
+export const options = {
+    vus: Number(__ENV.VUS || 10),
+    duration: __ENV.DURATION || '30s',
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const auth = http.post(`${BASE_URL}/api/v1/auth/token`,
+        JSON.stringify({ clientId: 'my-client-app', clientSecret: 's3cr3t_p@ssw0rd_f0r_@pi_cl13nt' }),
+        { headers: { 'Content-Type': 'application/json' } });
+    return { headers: { Authorization: `Bearer ${auth.json('accessToken')}` } };
+}
+
+// O cursor é opaco para clientes; aqui ele é montado direto para pular até a página sorteada,
+// o que só vale porque a massa tem chaves sequenciais.
+function cursorFor(page) {
+    const lastIndex = page * SIZE;
+    const key = TARGET === 'customers' ? String(lastIndex) : `979${String(lastIndex).padStart(10, '0')}`;
+    return encoding.b64encode(key, 'rawurl');
+}
+
+export default function (data) {
+    const page = FROM_PAGE + Math.floor(Math.random() * (TO_PAGE - FROM_PAGE));
+    const path = TARGET === 'customers' ? '/api/v1/customers' : '/api/v1/customers/1/favorites';
+    const query = MODE === 'cursor'
+        ? `cursor=${cursorFor(page)}&size=${SIZE}`
+        : `page=${page}&size=${SIZE}`;
+    const res = http.get(`${BASE_URL}${path}?${query}`, { headers: data.headers });
+    check(res, { 'page returned': (r) => r.status === 200 });
+}
+
+export function handleSummary(data) {
+    return { [`loadtest/results/pagination-${TARGET}-${MODE}.json`]: JSON.stringify(data, null, 2) };
+}
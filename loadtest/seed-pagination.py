@@ -0,0 +1,53 @@
+#!/usr/bin/env python3
+"""Gera SQL (MySQL) com uma massa de dados para o benchmark de paginação.
+
+Cria --customers clientes com ids 1..N e dá ao cliente 1 --favorites livros favoritos,
+com ISBNs sequenciais 979XXXXXXXXXX. Os contadores do resumo de favoritos são preenchidos
+de forma consistente. Uso (banco vazio, com o schema já criado pela aplicação):
+
+    python3 loadtest/seed-pagination.py --customers 200000 --favorites 50000 | mysql -h 127.0.0.1 -uroot -proot customer
+"""
+import argparse
+import sys
+
+CHUNK = 1000
+
+
+def isbn(i):
+    return '979%010d' % i
+
+
+def chunks(total):
+    for start in range(1, total + 1, CHUNK):
+        yield range(start, min(start + CHUNK, total + 1))
+
+
+def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument('--customers', type=int, default=200000)
+    parser.add_argument('--favorites', type=int, default=50000)
+    args = parser.parse_args()
+    out = sys.stdout
+
+    out.write('SET autocommit = 0;\n')
+    for ids in chunks(args.customers):
+        rows = ','.join(
+            "(%d, 'Cliente %d', '%011d', 'cliente%d@example.com', NOW(), %d)"
+            % (i, i, i, i, args.favorites if i == 1 else 0) for i in ids)
+        out.write('INSERT INTO customer (id, name, cpf, email, created_at, favorites_count) VALUES %s;\n' % rows)
+    out.write('COMMIT;\n')
+
+    for ids in chunks(args.favorites):
+        out.write('INSERT INTO book (isbn, title) VALUES %s;\n'
+                  % ','.join("('%s', 'Livro %d')" % (isbn(i), i) for i in ids))
+        out.write('INSERT INTO book_authors (book_isbn, author) VALUES %s;\n'
+                  % ','.join("('%s', 'Autor %d')" % (isbn(i), i % 50) for i in ids))
+        out.write('INSERT INTO customer_favorite_books (customer_id, book_isbn) VALUES %s;\n'
+                  % ','.join("(1, '%s')" % isbn(i) for i in ids))
+    out.write("INSERT INTO customer_favorite_term (customer_id, term_type, term, favorite_count) "
+              "SELECT 1, 'AUTHOR', author, COUNT(*) FROM book_authors GROUP BY author;\n")
+    out.write('COMMIT;\n')
+
+
+if __name__ == '__main__':
+    main()
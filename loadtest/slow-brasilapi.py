@@ -0,0 +1,55 @@
+#!/usr/bin/env python3
+"""Stub da BrasilAPI com latência configurável, usado nos testes de carga.
+
+Responde GET /api/isbn/v1/{isbn} com um livro fictício depois de esperar --delay segundos.
+ISBNs começando com "404" retornam 404.
+"""
+import argparse
+import json
+import time
+from http.server import BaseHTTPRequestHandler, ThreadingHTTPServer
+
+
+def build_handler(delay):
+    class Handler(BaseHTTPRequestHandler):
+        def do_GET(self):
+            isbn = self.path.rstrip('/').split('/')[-1]
+            time.sleep(delay)
+            if isbn.startswith('404'):
+                self.send_response(404)
+                self.end_headers()
+                return
+            body = json.dumps({
+                'isbn': isbn,
+                'title': 'Livro ' + isbn,
+                'authors': ['Autor ' + isbn[-1]],
+                'publisher': 'Editora Stub',
+                'synopsis': 'Sinopse',
+                'year': 2024,
+                'format': 'PHYSICAL',
+                'page_count': 200,
+                'subjects': ['Assunto ' + isbn[-2:]],
+                'retail_price': 49.9,
+                'provider': 'stub',
+            }).encode()
+            self.send_response(200)
+            self.send_header('Content-Type', 'application/json')
+            self.send_header('Content-Length', str(len(body)))
+            self.end_headers()
+            self.wfile.write(body)
+
+        def log_message(self, *args):
+            pass
+
+    return Handler
+
+
+if __name__ == '__main__':
+    parser = argparse.ArgumentParser()
+    parser.add_argument('--port', type=int, default=8090)
+    parser.add_argument('--delay', type=float, default=2.0, help='latência de cada resposta, em segundos')
+    args = parser.parse_args()
+    ThreadingHTTPServer.daemon_threads = True
+    ThreadingHTTPServer.request_queue_size = 1024
+    print(f'Stub da BrasilAPI em http://localhost:{args.port}/api/isbn/v1/ (delay {args.delay}s)')
+    ThreadingHTTPServer(('0.0.0.0', args.port), build_handler(args.delay)).serve_forever()
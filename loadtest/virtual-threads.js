@@ -0,0 +1,49 @@
+// Compara platform threads x virtual threads com a BrasilAPI lenta (loadtest/slow-brasilapi.py).
+// Uso: k6 run -e MODE=platform loadtest/virtual-threads.js
+import http from 'k6/http';
+import { check } from 'k6';
+import exec from 'k6/execution';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MODE = __ENV.MODE || 'platform';
+
+export const options = {
+    scenarios: {
+        slow_upstream: {
+            executor: 'constant-arrival-rate',
+            rate: Number(__ENV.RATE || 300),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '60s',
+            preAllocatedVUs: 500,
+            maxVUs: Number(__ENV.MAX_VUS || 2000),
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const auth = http.post(`${BASE_URL}/api/v1/auth/token`,
+        JSON.stringify({ clientId: 'my-client-app', clientSecret: 's3cr3t_p@ssw0rd_f0r_@pi_cl13nt' }),
+        { headers: { 'Content-Type': 'application/json' } });
+    const token = auth.json('accessToken');
+    const headers = { 'Content-Type': 'application/json', Authorization: `Bearer ${token}` };
+
+    // Em um banco vazio o cliente criado aqui recebe o id 1; em outro banco informe CUSTOMER_ID.
+    const customer = http.post(`${BASE_URL}/api/v1/customers`,
+        JSON.stringify({ name: 'Load Test', email: 'loadtest@example.com', cpf: '52998224725' }),
+        { headers });
+    check(customer, { 'customer ready': (r) => r.status === 200 || r.status === 409 });
+
+    return { headers, customerId: __ENV.CUSTOMER_ID || 1, runId: Date.now().toString().slice(-8) };
+}
+
+export default function (data) {
+    // ISBN sempre novo: cada requisição precisa ir até a BrasilAPI.
+    const isbn = `97${data.runId}${exec.scenario.iterationInTest}`;
+    const res = http.post(`${BASE_URL}/api/v1/customers/${data.customerId}/favorites/${isbn}`, null, { headers: data.headers });
+    check(res, { 'favorite added': (r) => r.status === 201 });
+}
+
+export function handleSummary(data) {
+    return { [`loadtest/results/${MODE}.json`]: JSON.stringify(data, null, 2) };
+}
@@ -0,0 +1,130 @@
+package com.ancora.customerbookshelf.benchmark;
+
+import com.ancora.customerbookshelf.dto.BookDTO;
+import com.ancora.customerbookshelf.dto.CustomerDTO;
+import com.ancora.customerbookshelf.mapper.BookMapper;
+import com.ancora.customerbookshelf.mapper.CustomerMapper;
+import com.ancora.customerbookshelf.model.Book;
+import com.ancora.customerbookshelf.model.Customer;
+import com.ancora.customerbookshelf.model.FavoriteTermCount;
+import com.ancora.customerbookshelf.model.FavoriteTermCount.TermType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Massa de dados determinística para os benchmarks: estantes com distribuição desigual de autores e
+ * assuntos (poucos muito frequentes, muitos raros), como em estantes reais.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static List<Book> books(int count, long seed) {
+        Random random = new Random(seed);
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            books.add(Book.builder()
+                    .isbn(String.format("978%010d", i))
+                    .title("Livro " + i)
+                    .subtitle("Volume " + (i % 7))
+                    .authors(List.of(skewed("Autor ", random, count), skewed("Autor ", random, count)))
+                    .publisher("Editora " + (i % 40))
+                    .synopsis("Sinopse do livro " + i)
+                    .year(1950 + random.nextInt(75))
+                    .format("PHYSICAL")
+                    .pageCount(100 + random.nextInt(900))
+                    .subjects(List.of(skewed("Assunto ", random, Math.max(4, count / 10))))
+                    .retailPrice(10 + random.nextInt(200) / 2.0)
+                    .build());
+        }
+        return books;
+    }
+
+    /**
+     * Contadores de {@code customer_favorite_term} equivalentes aos livros informados.
+     */
+    static List<FavoriteTermCount> termCounts(Long customerId, List<Book> books) {
+        Map<String, Long> authors = new HashMap<>();
+        Map<String, Long> subjects = new HashMap<>();
+        for (Book book : books) {
+            book.getAuthors().forEach(author -> authors.merge(author, 1L, Long::sum));
+            book.getSubjects().forEach(subject -> subjects.merge(subject, 1L, Long::sum));
+        }
+        List<FavoriteTermCount> terms = new ArrayList<>(authors.size() + subjects.size());
+        authors.forEach((term, count) -> terms.add(new FavoriteTermCount(customerId, TermType.AUTHOR, term, count)));
+        subjects.forEach((term, count) -> terms.add(new FavoriteTermCount(customerId, TermType.SUBJECT, term, count)));
+        return terms;
+    }
+
+    static List<CustomerDTO> customers(int count, int shelfSize) {
+        List<CustomerDTO> customers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Customer customer = Customer.builder()
+                    .id((long) i)
+                    .name("Cliente " + i)
+                    .email("cliente" + i + "@example.com")
+                    .cpf(String.format("%011d", i))
+                    .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(i))
+                    .favoritesCount(shelfSize)
+                    .build();
+            List<FavoriteTermCount> terms = termCounts(customer.getId(), books(shelfSize, i));
+            customers.add(CustomerMapper.ToDTO(customer, CustomerMapper.toSummary(shelfSize, terms, 1)));
+        }
+        return customers;
+    }
+
+    static List<BookDTO> bookDTOs(int count) {
+        return books(count, 42).stream().map(BookMapper::toDTO).toList();
+    }
+
+    /**
+     * Grafo cliente × livro sintético: estantes de 5 a ~{@code 5 + maxExtraShelf} livros, escolhidos com a mesma
+     * distribuição desigual (poucos livros muito favoritados). Linha {@code i} = favorito ({@code customers[i]},
+     * {@code isbns[i]}).
+     */
+    static FavoriteRows favorites(int customerCount, int bookCount, int maxExtraShelf, long seed) {
+        Random random = new Random(seed);
+        String[] pool = new String[bookCount];
+        for (int i = 0; i < bookCount; i++) {
+            pool[i] = String.format("978%010d", i);
+        }
+        long[] customers = new long[customerCount * (5 + maxExtraShelf)];
+        String[] isbns = new String[customers.length];
+        int rows = 0;
+        for (int customer = 0; customer < customerCount; customer++) {
+            double r = random.nextDouble();
+            int shelfSize = 5 + (int) (r * r * maxExtraShelf);
+            Set<Integer> shelf = new HashSet<>();
+            while (shelf.size() < shelfSize) {
+                double b = random.nextDouble();
+                shelf.add((int) (b * b * b * bookCount));
+            }
+            for (int book : shelf) {
+                customers[rows] = customer;
+                isbns[rows++] = pool[book];
+            }
+        }
+        return new FavoriteRows(Arrays.copyOf(customers, rows), Arrays.copyOf(isbns, rows));
+    }
+
+    record FavoriteRows(long[] customers, String[] isbns) {
+
+        int size() {
+            return customers.length;
+        }
+    }
+
+    private static String skewed(String prefix, Random random, int distinct) {
+        double r = random.nextDouble();
+        return prefix + (int) (r * r * r * distinct);
+    }
+}
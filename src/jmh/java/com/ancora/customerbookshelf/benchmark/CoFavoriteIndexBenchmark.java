@@ -0,0 +1,82 @@
+package com.ancora.customerbookshelf.benchmark;
+
+import com.ancora.customerbookshelf.benchmark.BenchmarkData.FavoriteRows;
+import com.ancora.customerbookshelf.service.CoFavoriteIndex;
+import com.ancora.customerbookshelf.service.CoFavoriteIndex.Recommendation;
+import com.ancora.customerbookshelf.service.FavoriteChangedEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Índice de recomendações sobre ~3,7 milhões de favoritos sintéticos (150 mil clientes, 100 mil livros): montagem
+ * a partir das linhas de {@code customer_favorite_books} com 1 e 4 threads, consultas por livro e por cliente e a
+ * atualização incremental de um favorito adicionado e removido.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class CoFavoriteIndexBenchmark {
+
+    private static final int CUSTOMERS = 150_000;
+    private static final int BOOKS = 100_000;
+    private static final int NEIGHBORS_PER_BOOK = 100;
+    private static final int MAX_SHELF_SIZE = 500;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private FavoriteRows rows;
+    private CoFavoriteIndex index;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        rows = BenchmarkData.favorites(CUSTOMERS, BOOKS, 60, 11);
+        index = load().build(parallelism);
+        random = new SplittableRandom(5);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public CoFavoriteIndex build() {
+        return load().build(parallelism);
+    }
+
+    @Benchmark
+    public List<Recommendation> similar() {
+        return index.similar(rows.isbns()[random.nextInt(rows.size())], 10);
+    }
+
+    @Benchmark
+    public List<Recommendation> forCustomer() {
+        return index.forCustomer((long) random.nextInt(CUSTOMERS), 10);
+    }
+
+    /**
+     * Adiciona e remove o mesmo favorito, deixando o índice como estava.
+     */
+    @Benchmark
+    public void addAndRemove() {
+        long customerId = random.nextInt(CUSTOMERS);
+        List<String> isbn = List.of(String.format("978%010d", random.nextInt(BOOKS)));
+        index.apply(new FavoriteChangedEvent(customerId, isbn, true));
+        index.apply(new FavoriteChangedEvent(customerId, isbn, false));
+    }
+
+    private CoFavoriteIndex.Builder load() {
+        CoFavoriteIndex.Builder builder = CoFavoriteIndex.builder(NEIGHBORS_PER_BOOK, MAX_SHELF_SIZE);
+        for (int i = 0; i < rows.size(); i++) {
+            builder.add(rows.customers()[i], rows.isbns()[i]);
+        }
+        return builder;
+    }
+}
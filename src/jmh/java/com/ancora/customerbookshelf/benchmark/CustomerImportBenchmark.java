@@ -0,0 +1,126 @@
+package com.ancora.customerbookshelf.benchmark;
+
+import com.ancora.customerbookshelf.repository.CustomerImportJdbcRepository;
+import com.ancora.customerbookshelf.service.CustomerImportService;
+import com.ancora.customerbookshelf.service.DataFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão (clientes/s) da importação em massa contra um H2 embarcado em modo MySQL.
+ * {@code perRow} reproduz o fluxo de {@code CustomerService.createCustomer}: duas consultas de unicidade e
+ * um insert por cliente, cada um em sua transação (ignora {@code batchSize}). {@code batched} usa
+ * {@link CustomerImportService}.
+ * Os números absolutos valem só para comparação entre os dois modos; contra MySQL real a diferença é maior,
+ * já que cada ida ao banco paga a latência de rede.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(CustomerImportBenchmark.ROWS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CustomerImportBenchmark {
+
+    static final int ROWS = 10_000;
+
+    @Param({"100", "1000"})
+    private int batchSize;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private CustomerImportService importService;
+    private byte[] csv;
+    private String[][] rows;
+
+    @Setup
+    public void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:import;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS customer");
+        jdbcTemplate.execute("CREATE TABLE customer (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(150), " +
+                "cpf VARCHAR(11) UNIQUE, email VARCHAR(150) NOT NULL UNIQUE, created_at TIMESTAMP NOT NULL, " +
+                "favorites_count BIGINT NOT NULL)");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        importService = new CustomerImportService(
+                new CustomerImportJdbcRepository(jdbcTemplate, new NamedParameterJdbcTemplate(jdbcTemplate)),
+                transactionTemplate,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(),
+                batchSize,
+                1000);
+
+        rows = new String[ROWS][];
+        StringBuilder builder = new StringBuilder("name,email,cpf\n");
+        for (int i = 0; i < ROWS; i++) {
+            rows[i] = new String[]{"Cliente " + i, "cliente" + i + "@example.com", cpf(100_000_000 + i)};
+            builder.append(rows[i][0]).append(',').append(rows[i][1]).append(',').append(rows[i][2]).append('\n');
+        }
+        csv = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE customer");
+    }
+
+    @Benchmark
+    public long batched() throws IOException {
+        return importService.importCustomers(new ByteArrayInputStream(csv), DataFormat.CSV).getImported();
+    }
+
+    @Benchmark
+    public long perRow() {
+        long imported = 0;
+        for (String[] row : rows) {
+            Boolean inserted = transactionTemplate.execute(status -> {
+                if (!jdbcTemplate.queryForList("SELECT id FROM customer WHERE email = ?", Long.class, row[1]).isEmpty()
+                        || !jdbcTemplate.queryForList("SELECT id FROM customer WHERE cpf = ?", Long.class, row[2]).isEmpty()) {
+                    return false;
+                }
+                jdbcTemplate.update("INSERT INTO customer (name, cpf, email, created_at, favorites_count) VALUES (?, ?, ?, ?, 0)",
+                        row[0], row[2], row[1], Timestamp.valueOf(LocalDateTime.now()));
+                return true;
+            });
+            imported += Boolean.TRUE.equals(inserted) ? 1 : 0;
+        }
+        return imported;
+    }
+
+    private static String cpf(int base) {
+        int[] digits = new int[11];
+        String text = String.format("%09d", base);
+        for (int i = 0; i < 9; i++) {
+            digits[i] = text.charAt(i) - '0';
+        }
+        for (int length = 9; length < 11; length++) {
+            int sum = 0;
+            for (int i = 0; i < length; i++) {
+                sum += digits[i] * (length + 1 - i);
+            }
+            int rest = (sum * 10) % 11;
+            digits[length] = rest == 10 ? 0 : rest;
+        }
+        StringBuilder builder = new StringBuilder(11);
+        for (int digit : digits) {
+            builder.append(digit);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,71 @@
+package com.ancora.customerbookshelf.benchmark;
+
+import com.ancora.customerbookshelf.dto.FavoriteSearchRequestDTO;
+import com.ancora.customerbookshelf.dto.FavoriteSearchResultDTO;
+import com.ancora.customerbookshelf.model.Book;
+import com.ancora.customerbookshelf.service.ShelfIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca facetada dos favoritos sobre o {@link ShelfIndex}: montagem do índice (custo de uma estante desatualizada)
+ * e consultas sem filtro, com filtros de faceta e faixa e com texto, sempre contando todas as facetas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FavoriteSearchBenchmark {
+
+    @Param({"1000", "10000"})
+    private int shelfSize;
+
+    private List<Book> books;
+    private ShelfIndex index;
+    private FavoriteSearchRequestDTO all;
+    private FavoriteSearchRequestDTO filtered;
+    private FavoriteSearchRequestDTO text;
+
+    @Setup
+    public void setUp() {
+        books = BenchmarkData.books(shelfSize, 7);
+        index = ShelfIndex.build(1, books);
+
+        all = new FavoriteSearchRequestDTO();
+
+        filtered = new FavoriteSearchRequestDTO();
+        filtered.setAuthor(List.of("Autor 0", "Autor 1"));
+        filtered.setPublisher(List.of("Editora 3", "Editora 5", "Editora 8"));
+        filtered.setYearFrom(1970);
+        filtered.setYearTo(2000);
+        filtered.setPriceMax(80.0);
+
+        text = new FavoriteSearchRequestDTO();
+        text.setQ("livro 12");
+        text.setSubject(List.of("Assunto 0"));
+    }
+
+    @Benchmark
+    public ShelfIndex build() {
+        return ShelfIndex.build(1, books);
+    }
+
+    @Benchmark
+    public FavoriteSearchResultDTO searchAll() {
+        return index.search(all);
+    }
+
+    @Benchmark
+    public FavoriteSearchResultDTO searchFiltered() {
+        return index.search(filtered);
+    }
+
+    @Benchmark
+    public FavoriteSearchResultDTO searchText() {
+        return index.search(text);
+    }
+}
@@ -0,0 +1,78 @@
+package com.ancora.customerbookshelf.benchmark;
+
+import com.ancora.customerbookshelf.model.Book;
+import com.ancora.customerbookshelf.util.TopK;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Autores/assuntos mais frequentes de uma estante. {@code legacyGroupingBy} reproduz o antigo
+ * {@code CustomerMapper.calculateSummary} (listas intermediárias, {@code groupingBy} com {@code Long}
+ * e duas passadas, sempre só os empatados no máximo, ignorando {@code k}); {@code topKOnePass} usa
+ * {@link TopK} em uma única passada sobre os livros.
+ * Rode com o profiler de GC (padrão do profile jmh) para comparar {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrequencyBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int shelfSize;
+
+    @Param({"1", "5"})
+    private int k;
+
+    private List<Book> books;
+
+    @Setup
+    public void setUp() {
+        books = BenchmarkData.books(shelfSize, 11);
+    }
+
+    @Benchmark
+    public void legacyGroupingBy(Blackhole blackhole) {
+        List<String> allAuthors = books.stream().flatMap(book -> book.getAuthors().stream()).collect(Collectors.toList());
+        List<String> allSubjects = books.stream().flatMap(book -> book.getSubjects().stream()).collect(Collectors.toList());
+        blackhole.consume(mostFrequent(allAuthors));
+        blackhole.consume(mostFrequent(allSubjects));
+    }
+
+    @Benchmark
+    public void topKOnePass(Blackhole blackhole) {
+        TopK<String> authors = new TopK<>();
+        TopK<String> subjects = new TopK<>();
+        for (Book book : books) {
+            for (String author : book.getAuthors()) {
+                authors.add(author);
+            }
+            for (String subject : book.getSubjects()) {
+                subjects.add(subject);
+            }
+        }
+        blackhole.consume(authors.top(k));
+        blackhole.consume(subjects.top(k));
+    }
+
+    private static <T> List<T> mostFrequent(List<T> list) {
+        if (list.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<T, Long> frequencyMap = list.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        long maxFrequency = Collections.max(frequencyMap.values());
+        return frequencyMap.entrySet().stream()
+                .filter(entry -> entry.getValue() == maxFrequency)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+}
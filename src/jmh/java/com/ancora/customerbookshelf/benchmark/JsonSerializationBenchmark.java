@@ -0,0 +1,50 @@
+package com.ancora.customerbookshelf.benchmark;
+
+import com.ancora.customerbookshelf.dto.BookDTO;
+import com.ancora.customerbookshelf.dto.CustomerDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização das páginas devolvidas pelas listagens, com um {@link ObjectMapper} configurado como o do Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<CustomerDTO> customerPage;
+    private Page<BookDTO> bookPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        PageRequest pageRequest = PageRequest.of(3, pageSize);
+        customerPage = new PageImpl<>(BenchmarkData.customers(pageSize, 50), pageRequest, 100_000);
+        bookPage = new PageImpl<>(BenchmarkData.bookDTOs(pageSize), pageRequest, 100_000);
+    }
+
+    @Benchmark
+    public byte[] customerPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(customerPage);
+    }
+
+    @Benchmark
+    public byte[] bookPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookPage);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ancora.customerbookshelf.benchmark;
+
+import com.ancora.customerbookshelf.security.JwtTokenFilter;
+import com.ancora.customerbookshelf.security.JwtTokenProvider;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por requisição da autenticação JWT.
+ * {@code legacyDoubleParse} reproduz a implementação anterior (chave e parser recriados, token verificado duas vezes);
+ * {@code singlePass} verifica uma vez com chave e parser prontos; {@code filterCachedToken} roda o filtro
+ * completo com o token já no cache de tokens verificados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenFilterBenchmark {
+
+    private static final String SECRET = "VGhpcy1Jcy1BLVZlcnktTG9uZy1TdWJzdGFudGlhbGx5LVJhbmRvbS1TdHJpbmctRm9yLU15LUand1QtU2VjcmV0";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtTokenProvider uncachedProvider;
+    private JwtTokenFilter cachedFilter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncachedProvider = new JwtTokenProvider(SECRET, 3_600_000, 0);
+        JwtTokenProvider cachedProvider = new JwtTokenProvider(SECRET, 3_600_000, 10_000);
+        cachedFilter = new JwtTokenFilter(cachedProvider);
+        token = cachedProvider.generateToken("my-client-app");
+    }
+
+    @Benchmark
+    public void legacyDoubleParse(Blackhole blackhole) {
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build().parseClaimsJws(token);
+        blackhole.consume(Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseClaimsJws(token).getBody().getSubject());
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole blackhole) {
+        blackhole.consume(uncachedProvider.resolveClientId(token));
+    }
+
+    @Benchmark
+    public void filterCachedToken(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers");
+        request.addHeader("Authorization", "Bearer " + token);
+        cachedFilter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+        blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,47 @@
+package com.ancora.customerbookshelf.benchmark;
+
+import com.ancora.customerbookshelf.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emissão e verificação de tokens, com e sem o cache de tokens verificados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "VGhpcy1Jcy1BLVZlcnktTG9uZy1TdWJzdGFudGlhbGx5LVJhbmRvbS1TdHJpbmctRm9yLU15LUand1QtU2VjcmV0";
+
+    private JwtTokenProvider uncachedProvider;
+    private JwtTokenProvider cachedProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncachedProvider = new JwtTokenProvider(SECRET, 3_600_000, 0);
+        cachedProvider = new JwtTokenProvider(SECRET, 3_600_000, 10_000);
+        token = cachedProvider.generateToken("my-client-app");
+    }
+
+    @Benchmark
+    public String generate() {
+        return uncachedProvider.generateToken("my-client-app");
+    }
+
+    @Benchmark
+    public Optional<String> validateUncached() {
+        return uncachedProvider.resolveClientId(token);
+    }
+
+    @Benchmark
+    public Optional<String> validateCached() {
+        return cachedProvider.resolveClientId(token);
+    }
+}
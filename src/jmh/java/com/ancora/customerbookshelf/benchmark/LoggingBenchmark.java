@@ -0,0 +1,135 @@
+package com.ancora.customerbookshelf.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.ancora.customerbookshelf.config.RequestLogSamplingFilter;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo, na thread da requisição, de uma linha INFO de controller com 4 threads logando ao mesmo tempo:
+ * {@code sync_pattern} é a configuração antiga (arquivo síncrono com {@code %C{1}}), {@code sync_json} isola o
+ * custo do encoder JSON, {@code async_json} é a configuração atual e {@code async_json_sampled} soma a amostragem 1/10.
+ * Com {@code neverBlock}, quando a fila enche os eventos INFO são descartados em vez de esperar o disco;
+ * o benchmark mede exatamente essa garantia de que a requisição não bloqueia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final int TRACE_IDS = 1024;
+
+    @Param({"sync_pattern", "sync_json", "async_json", "async_json_sampled"})
+    private String mode;
+
+    private LoggerContext context;
+    private Logger logger;
+    private Path logFile;
+    private String[] traceIds;
+
+    @State(Scope.Thread)
+    public static class Request {
+        int sequence;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("logging-benchmark", ".log");
+        context = new LoggerContext();
+        context.start();
+
+        Appender<ILoggingEvent> appender = switch (mode) {
+            case "sync_pattern" -> fileAppender(patternEncoder("%d %p %C{1} [%t] %m%n"));
+            case "sync_json" -> fileAppender(jsonEncoder());
+            case "async_json", "async_json_sampled" -> asyncAppender(fileAppender(jsonEncoder()));
+            default -> throw new IllegalArgumentException(mode);
+        };
+        if (mode.equals("async_json_sampled")) {
+            RequestLogSamplingFilter filter = new RequestLogSamplingFilter();
+            filter.setLoggerPrefix("com.ancora.customerbookshelf.controller");
+            filter.setRate(10);
+            filter.setContext(context);
+            filter.start();
+            context.addTurboFilter(filter);
+        }
+
+        logger = context.getLogger("com.ancora.customerbookshelf.controller.CustomerController");
+        logger.setLevel(Level.DEBUG);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+
+        traceIds = new String[TRACE_IDS];
+        for (int i = 0; i < TRACE_IDS; i++) {
+            traceIds[i] = "%016x%016x".formatted(ThreadLocalRandom.current().nextLong(), ThreadLocalRandom.current().nextLong());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void controllerInfoLine(Request request) {
+        MDC.put("traceId", traceIds[request.sequence++ & (TRACE_IDS - 1)]);
+        logger.info("Received request to get customer by id: {}", request.sequence);
+    }
+
+    private FileAppender<ILoggingEvent> fileAppender(Encoder<ILoggingEvent> encoder) {
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile(logFile.toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    private AsyncAppender asyncAppender(Appender<ILoggingEvent> delegate) {
+        AsyncAppender appender = new AsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(8192);
+        appender.setDiscardingThreshold(1638);
+        appender.setNeverBlock(true);
+        appender.setIncludeCallerData(false);
+        appender.addAppender(delegate);
+        appender.start();
+        return appender;
+    }
+
+    private PatternLayoutEncoder patternEncoder(String pattern) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(pattern);
+        encoder.start();
+        return encoder;
+    }
+
+    private LogstashEncoder jsonEncoder() {
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.setIncludeCallerData(false);
+        encoder.setIncludeContext(false);
+        encoder.start();
+        return encoder;
+    }
+}
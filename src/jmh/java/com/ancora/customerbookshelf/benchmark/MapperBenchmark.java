@@ -0,0 +1,48 @@
+package com.ancora.customerbookshelf.benchmark;
+
+import com.ancora.customerbookshelf.dto.BookDTO;
+import com.ancora.customerbookshelf.dto.FavoritesSummaryDTO;
+import com.ancora.customerbookshelf.mapper.BookMapper;
+import com.ancora.customerbookshelf.mapper.CustomerMapper;
+import com.ancora.customerbookshelf.model.Book;
+import com.ancora.customerbookshelf.model.FavoriteTermCount;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeamentos executados em toda resposta de cliente e de favoritos: o resumo de favoritos a partir dos
+ * contadores pré-calculados (que substituiu o antigo {@code calculateSummary} sobre os livros) e
+ * {@link BookMapper#toDTO} sobre a estante inteira.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int shelfSize;
+
+    private List<Book> books;
+    private List<FavoriteTermCount> terms;
+
+    @Setup
+    public void setUp() {
+        books = BenchmarkData.books(shelfSize, 7);
+        terms = BenchmarkData.termCounts(1L, books);
+    }
+
+    @Benchmark
+    public FavoritesSummaryDTO favoritesSummary() {
+        return CustomerMapper.toSummary(shelfSize, terms, 1);
+    }
+
+    @Benchmark
+    public List<BookDTO> booksToDTO() {
+        return books.stream().map(BookMapper::toDTO).toList();
+    }
+}
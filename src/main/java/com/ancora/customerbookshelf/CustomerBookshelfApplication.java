@@ -2,14 +2,12 @@ package com.ancora.customerbookshelf;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableAsync
-@EnableRetry
-@EnableCaching
+@EnableScheduling
 public class CustomerBookshelfApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,137 @@
+package com.ancora.customerbookshelf.client;
+
+import com.ancora.customerbookshelf.dto.brasilapi.BookResponseDTO;
+import com.ancora.customerbookshelf.exception.ExternalBookNotFoundException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache de metadados de livros na frente do {@link BrasilApiClient}.
+ * Toda busca de ISBN na API externa deve passar por aqui: o cache é limitado por tamanho,
+ * guarda respostas encontradas e 404s com TTLs diferentes e registra estatísticas de hit/miss/eviction.
+ * Falhas transitórias (API indisponível) não são guardadas.
+ * A chamada à API roda na thread de quem perdeu o cache, fora do {@code compute} do Caffeine: o cache só guarda um
+ * {@link CompletableFuture} ainda pendente, que os demais chamadores do mesmo ISBN aguardam. Assim uma busca lenta
+ * (com retries) não bloqueia outros ISBNs do mesmo bin do mapa nem as evictions.
+ * As estatísticas são publicadas em {@code cache.*} com a tag {@code cache=brasilapi.metadata}.
+ */
+@Component
+@Slf4j
+public class BookMetadataCache implements MeterBinder {
+
+    private final BrasilApiClient brasilApiClient;
+    private final AsyncCache<String, CachedLookup> cache;
+
+    public BookMetadataCache(BrasilApiClient brasilApiClient,
+                             @Value("${brasilapi.cache.maximum-size}") long maximumSize,
+                             @Value("${brasilapi.cache.hit-ttl-ms}") long hitTtlMs,
+                             @Value("${brasilapi.cache.not-found-ttl-ms}") long notFoundTtlMs) {
+        this.brasilApiClient = brasilApiClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new LookupExpiry(TimeUnit.MILLISECONDS.toNanos(hitTtlMs), TimeUnit.MILLISECONDS.toNanos(notFoundTtlMs)))
+                .recordStats()
+                .buildAsync();
+    }
+
+    public BookResponseDTO lookup(String isbn) {
+        CompletableFuture<CachedLookup> loading = new CompletableFuture<>();
+        CompletableFuture<CachedLookup> cached = cache.get(isbn, (key, executor) -> loading);
+        CachedLookup lookup = cached == loading ? load(isbn, loading) : await(cached);
+        if (!lookup.found()) {
+            throw new ExternalBookNotFoundException("Book with ISBN " + isbn + " not found in external API.");
+        }
+        return lookup.book();
+    }
+
+    /**
+     * Guarda um livro já conhecido (por exemplo, relido pelo refresh-ahead) sem consultar a API.
+     */
+    public void put(BookResponseDTO book) {
+        cache.put(book.getIsbn(), CompletableFuture.completedFuture(new CachedLookup(book)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "brasilapi.metadata");
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public long estimatedSize() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    /**
+     * Uma resposta sem corpo é guardada como não encontrada (com o TTL de 404). Qualquer falha, inclusive um
+     * {@link Error}, tira o future pendente do cache, completa-o com a exceção para quem está esperando e é relançada;
+     * assim a próxima busca do ISBN tenta de novo em vez de esperar para sempre.
+     */
+    private CachedLookup load(String isbn, CompletableFuture<CachedLookup> loading) {
+        log.debug("Metadata cache miss for ISBN {}", isbn);
+        CachedLookup lookup;
+        try {
+            lookup = new CachedLookup(brasilApiClient.fetchBookFromBrasilApi(isbn));
+        } catch (ExternalBookNotFoundException ex) {
+            lookup = new CachedLookup(null);
+        } catch (Throwable ex) {
+            cache.asMap().remove(isbn, loading);
+            loading.completeExceptionally(ex);
+            throw ex;
+        }
+        loading.complete(lookup);
+        return lookup;
+    }
+
+    private static CachedLookup await(CompletableFuture<CachedLookup> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private record CachedLookup(BookResponseDTO book) {
+        boolean found() {
+            return book != null;
+        }
+    }
+
+    private record LookupExpiry(long hitTtlNanos, long notFoundTtlNanos) implements Expiry<String, CachedLookup> {
+
+        @Override
+        public long expireAfterCreate(String isbn, CachedLookup lookup, long currentTime) {
+            return lookup.found() ? hitTtlNanos : notFoundTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String isbn, CachedLookup lookup, long currentTime, long currentDuration) {
+            return expireAfterCreate(isbn, lookup, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String isbn, CachedLookup lookup, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
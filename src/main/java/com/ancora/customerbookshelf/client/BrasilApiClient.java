@@ -0,0 +1,123 @@
+package com.ancora.customerbookshelf.client;
+
+import com.ancora.customerbookshelf.dto.brasilapi.BookResponseDTO;
+import com.ancora.customerbookshelf.exception.ExternalBookNotFoundException;
+import com.ancora.customerbookshelf.exception.ExternalServiceUnavailableException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+@Component
+@Slf4j
+public class BrasilApiClient {
+
+    public static final String BRASIL_API = "brasilApi";
+
+    private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Timer hitTimer;
+    private final Timer notFoundTimer;
+    private final Timer errorTimer;
+    private final Counter circuitOpenRecoveries;
+    private final Counter bulkheadFullRecoveries;
+    private final Counter retriesExhaustedRecoveries;
+
+    @Value("${brasilapi.url}")
+    private String brasilApiUrl;
+
+    /**
+     * Métricas: {@code brasilapi.fetch} mede cada tentativa HTTP com a tag {@code outcome} (hit, not_found, error);
+     * {@code brasilapi.fetch.recoveries} conta as chamadas que terminaram no fallback, por {@code reason}.
+     * As retentativas são contadas em {@code brasilapi.fetch.retries} (ver {@code BrasilApiResilienceConfig}).
+     */
+    public BrasilApiClient(RestTemplate restTemplate, MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.meterRegistry = meterRegistry;
+        this.hitTimer = fetchTimer("hit");
+        this.notFoundTimer = fetchTimer("not_found");
+        this.errorTimer = fetchTimer("error");
+        this.circuitOpenRecoveries = recoveryCounter("circuit_open");
+        this.bulkheadFullRecoveries = recoveryCounter("bulkhead_full");
+        this.retriesExhaustedRecoveries = recoveryCounter("retries_exhausted");
+    }
+
+    /**
+     * Chamada protegida pelas instâncias {@code brasilApi} do Resilience4j (configuradas no application.properties),
+     * aplicadas de fora para dentro nesta ordem:
+     * Retry = Retentativas com backoff exponencial e jitter para falhas de rede e erros 5xx.
+     * CircuitBreaker = Abre quando a taxa de erro passa do limite e libera chamadas de teste no estado half-open.
+     * Bulkhead = Limita as chamadas simultâneas à API externa.
+     */
+    @Retry(name = BRASIL_API, fallbackMethod = "recoverFromApiFailure")
+    @CircuitBreaker(name = BRASIL_API)
+    @Bulkhead(name = BRASIL_API)
+    public BookResponseDTO fetchBookFromBrasilApi(String isbn) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            log.info("Fetching book with ISBN {} from URL: {}{}", isbn, brasilApiUrl, isbn);
+            // URI como template para que a métrica http.client.requests não crie uma série por ISBN.
+            BookResponseDTO book = restTemplate.getForObject(brasilApiUrl + "{isbn}", BookResponseDTO.class, isbn);
+            sample.stop(hitTimer);
+            return book;
+        } catch (HttpClientErrorException.NotFound ex) {
+            sample.stop(notFoundTimer);
+            // Esta exceção (404) não dispara a retentativa, pois significa que o livro não existe, então não adianta tentar de novo.
+            throw new ExternalBookNotFoundException("Book with ISBN " + isbn + " not found in external API.");
+        } catch (RuntimeException ex) {
+            sample.stop(errorTimer);
+            throw ex;
+        }
+    }
+
+    /**
+     * Um 404 não é falha da API externa: chega ao chamador como está.
+     */
+    private BookResponseDTO recoverFromApiFailure(String isbn, ExternalBookNotFoundException ex) {
+        throw ex;
+    }
+
+    private BookResponseDTO recoverFromApiFailure(String isbn, CallNotPermittedException ex) {
+        circuitOpenRecoveries.increment();
+        log.warn("Circuit breaker is open, skipping external call for ISBN {}", isbn);
+        throw new ExternalServiceUnavailableException("Book provider is temporarily unavailable. Try again later.");
+    }
+
+    private BookResponseDTO recoverFromApiFailure(String isbn, BulkheadFullException ex) {
+        bulkheadFullRecoveries.increment();
+        log.warn("Too many concurrent calls to the book provider, rejecting ISBN {}", isbn);
+        throw new ExternalServiceUnavailableException("Book provider is busy. Try again later.");
+    }
+
+    /**
+     * Método de recuperação. É chamado quando todas as tentativas falharam.
+     */
+    private BookResponseDTO recoverFromApiFailure(String isbn, Exception ex) {
+        retriesExhaustedRecoveries.increment();
+        log.error("All retry attempts failed for ISBN {}. Error: {}", isbn, ex.getMessage());
+        throw new ExternalServiceUnavailableException("Failed to fetch book data for ISBN " + isbn + " from external API after multiple retries.");
+    }
+
+    private Timer fetchTimer(String outcome) {
+        return Timer.builder("brasilapi.fetch")
+                .description("Calls to the BrasilAPI ISBN endpoint, one per attempt")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter recoveryCounter(String reason) {
+        return Counter.builder("brasilapi.fetch.recoveries")
+                .description("BrasilAPI lookups answered by the fallback instead of the API")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -1,14 +1,66 @@
 package com.ancora.customerbookshelf.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 public class AppConfig {
 
+    /**
+     * Executor padrão do {@code @Async}. Declarado aqui porque o Spring Boot deixa de criá-lo
+     * quando existe outro executor no contexto (o {@code bookFetchExecutor}).
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public AsyncTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Com {@code spring.threads.virtual.enabled=true} o {@code @Async} roda cada tarefa em uma virtual thread.
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor applicationTaskExecutorVirtualThreads(SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Pool usado pela adição em massa para buscar ISBNs na BrasilAPI em paralelo.
+     * O tamanho do pool é o limite de buscas simultâneas somando todos os jobs.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public AsyncTaskExecutor bookFetchExecutor(@Value("${bulk-add.fetch-concurrency}") int fetchConcurrency,
+                                               TaskDecorator taskDecorator) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(fetchConcurrency);
+        executor.setMaxPoolSize(fetchConcurrency);
+        executor.setThreadNamePrefix("book-fetch-");
+        executor.setTaskDecorator(taskDecorator);
+        return executor;
+    }
+
+    /**
+     * Versão com virtual threads: uma thread por busca, com o mesmo limite de buscas simultâneas.
+     */
+    @Bean(name = "bookFetchExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor bookFetchExecutorVirtualThreads(@Value("${bulk-add.fetch-concurrency}") int fetchConcurrency,
+                                                             TaskDecorator taskDecorator) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("book-fetch-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(fetchConcurrency);
+        executor.setTaskDecorator(taskDecorator);
+        return executor;
     }
 }
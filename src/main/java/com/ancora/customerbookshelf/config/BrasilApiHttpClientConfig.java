@@ -0,0 +1,77 @@
+package com.ancora.customerbookshelf.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Cliente HTTP da BrasilAPI: pool de conexões com keep-alive, limite por rota e timeouts explícitos,
+ * para que um socket travado na API externa não prenda a thread da requisição indefinidamente.
+ * O {@link RestTemplate} vem do {@link RestTemplateBuilder} do Spring Boot, que registra a latência
+ * das chamadas em {@code http.client.requests}; o uso do pool é publicado em {@code httpcomponents.httpclient.pool.*} com a tag {@code httpclient=brasilapi}.
+ */
+@Configuration
+public class BrasilApiHttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager brasilApiConnectionManager(
+            @Value("${brasilapi.http.max-connections}") int maxConnections,
+            @Value("${brasilapi.http.max-connections-per-route}") int maxConnectionsPerRoute,
+            @Value("${brasilapi.http.connect-timeout-ms}") long connectTimeoutMs,
+            @Value("${brasilapi.http.read-timeout-ms}") long readTimeoutMs,
+            @Value("${brasilapi.http.keep-alive-ms}") long keepAliveMs) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofMilliseconds(keepAliveMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient brasilApiHttpClient(
+            PoolingHttpClientConnectionManager brasilApiConnectionManager,
+            @Value("${brasilapi.http.read-timeout-ms}") long readTimeoutMs,
+            @Value("${brasilapi.http.connection-request-timeout-ms}") long connectionRequestTimeoutMs,
+            @Value("${brasilapi.http.keep-alive-ms}") long keepAliveMs) {
+        return HttpClients.custom()
+                .setConnectionManager(brasilApiConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(keepAliveMs))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(keepAliveMs))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate brasilApiRestTemplate(RestTemplateBuilder builder, CloseableHttpClient brasilApiHttpClient) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(brasilApiHttpClient))
+                .build();
+    }
+
+    @Bean
+    public MeterBinder brasilApiConnectionPoolMetrics(PoolingHttpClientConnectionManager brasilApiConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(brasilApiConnectionManager, "brasilapi");
+    }
+}
@@ -0,0 +1,40 @@
+package com.ancora.customerbookshelf.config;
+
+import com.ancora.customerbookshelf.client.BrasilApiClient;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Estado do circuit breaker, chamadas não permitidas e ocupação do bulkhead já são publicados pelo
+ * Resilience4j ({@code resilience4j.circuitbreaker.*}, {@code resilience4j.bulkhead.*}).
+ * Aqui entram o contador de chamadas rejeitadas pelo bulkhead, que o Resilience4j não publica, e o de
+ * retentativas da busca na BrasilAPI, ao lado das demais métricas {@code brasilapi.fetch.*}.
+ */
+@Configuration
+public class BrasilApiResilienceConfig {
+
+    @Bean
+    public MeterBinder brasilApiBulkheadRejectionMetrics(BulkheadRegistry bulkheadRegistry) {
+        return registry -> {
+            Counter rejected = Counter.builder("resilience4j.bulkhead.rejected.calls")
+                    .description("Calls rejected because the bulkhead was full")
+                    .tag("name", BrasilApiClient.BRASIL_API)
+                    .register(registry);
+            bulkheadRegistry.bulkhead(BrasilApiClient.BRASIL_API).getEventPublisher().onCallRejected(event -> rejected.increment());
+        };
+    }
+
+    @Bean
+    public MeterBinder brasilApiRetryMetrics(RetryRegistry retryRegistry) {
+        return registry -> {
+            Counter retries = Counter.builder("brasilapi.fetch.retries")
+                    .description("BrasilAPI attempts that failed and were retried")
+                    .register(registry);
+            retryRegistry.retry(BrasilApiClient.BRASIL_API).getEventPublisher().onRetry(event -> retries.increment());
+        };
+    }
+}
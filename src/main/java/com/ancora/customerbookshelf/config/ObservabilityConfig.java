@@ -0,0 +1,31 @@
+package com.ancora.customerbookshelf.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+/**
+ * Latência das requisições ({@code http.server.requests}), dos repositórios Spring Data
+ * ({@code spring.data.repository.invocations}), do pool Hikari ({@code hikaricp.*}) e dos executores
+ * ({@code executor.*}) já é publicada pelo Spring Boot. Aqui entram os {@code @Timed} dos repositórios JDBC
+ * e a propagação do contexto de observação (trace id no MDC) para as tarefas assíncronas.
+ */
+@Configuration
+public class ObservabilityConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    /**
+     * Aplicado pelo Spring Boot ao executor do {@code @Async}; o {@code bookFetchExecutor} o recebe em {@link AppConfig}.
+     */
+    @Bean
+    public TaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+}
@@ -0,0 +1,79 @@
+package com.ancora.customerbookshelf.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Leituras nas réplicas: transações {@code readOnly} usam o {@link ReplicaRoutingDataSource}, o resto vai para o
+ * primário ({@code spring.datasource.*}). O {@link LazyConnectionDataSourceProxy} só abre a conexão física no
+ * primeiro comando SQL, quando o gerenciador de transação já marcou a conexão como somente leitura, e então
+ * escolhe o pool. Cada réplica tem seu próprio pool Hikari, dimensionado por {@code datasource-routing.replica.*}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource-routing.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    // As URLs são separadas por vírgula, mas uma URL JDBC pode ter vírgulas nos parâmetros.
+    private static final Pattern URL_SEPARATOR = Pattern.compile("\\s*,\\s*(?=jdbc:)");
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            MeterRegistry meterRegistry,
+            @Value("${datasource-routing.replica-urls}") String replicaUrls,
+            @Value("${datasource-routing.replica.username}") String username,
+            @Value("${datasource-routing.replica.password}") String password,
+            @Value("${datasource-routing.replica.maximum-pool-size}") int maximumPoolSize,
+            @Value("${datasource-routing.replica.minimum-idle}") int minimumIdle,
+            @Value("${datasource-routing.replica.connection-timeout-ms}") long connectionTimeoutMs,
+            @Value("${datasource-routing.lag-query}") String lagQuery,
+            @Value("${datasource-routing.max-lag-seconds}") long maxLagSeconds) {
+        String[] urls = URL_SEPARATOR.split(replicaUrls.trim());
+        List<HikariDataSource> replicas = new ArrayList<>(urls.length);
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("ReplicaPool-" + (i + 1));
+            replica.setJdbcUrl(urls[i]);
+            replica.setDriverClassName(primaryDataSource.getDriverClassName());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setMinimumIdle(minimumIdle);
+            // Timeout curto: com a réplica fora do ar a leitura cai logo no primário em vez de esperar o pool.
+            replica.setConnectionTimeout(connectionTimeoutMs);
+            replica.setInitializationFailTimeout(-1);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, lagQuery, maxLagSeconds, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+}
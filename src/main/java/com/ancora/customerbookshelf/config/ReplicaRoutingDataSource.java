@@ -0,0 +1,182 @@
+package com.ancora.customerbookshelf.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource das transações somente leitura: distribui as conexões entre as réplicas saudáveis (round-robin) e
+ * usa o primário quando nenhuma está disponível. Uma réplica sai da rotação quando a verificação periódica falha,
+ * quando o atraso de replicação passa de {@code datasource-routing.max-lag-seconds} ou quando abrir uma conexão
+ * nela falha (o pool esgotado não conta); ela volta na próxima verificação bem-sucedida.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final String[] LAG_COLUMNS = {"Seconds_Behind_Source", "Seconds_Behind_Master"};
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter replicaConnections;
+    private final Counter primaryFallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, String lagQuery,
+                                    long maxLagSeconds, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        this.replicaConnections = routingCounter(meterRegistry, "replica");
+        this.primaryFallbacks = routingCounter(meterRegistry, "primary_fallback");
+        Gauge.builder("datasource.replicas.healthy", this.replicas, list -> list.stream().filter(r -> r.healthy).count())
+                .description("Read replicas currently in the read-only rotation")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int size = replicas.size();
+        int start = size == 0 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException | RuntimeException e) {
+                // O Hikari também lança RuntimeException quando o pool não consegue nem ser criado.
+                if (!isPoolExhausted(replica.dataSource, e)) {
+                    markUnhealthy(replica, e.getMessage());
+                }
+            }
+        }
+        primaryFallbacks.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica routing uses the credentials of each pool.");
+    }
+
+    @Scheduled(initialDelayString = "${datasource-routing.health-check-interval-ms}",
+            fixedDelayString = "${datasource-routing.health-check-interval-ms}")
+    public void checkReplicas() {
+        replicas.forEach(this::check);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private void check(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            Long lag = lagSeconds(connection);
+            if (lag == null) {
+                markUnhealthy(replica, "replication is not running");
+            } else if (lag > maxLagSeconds) {
+                markUnhealthy(replica, "replication lag of " + lag + "s exceeds " + maxLagSeconds + "s");
+            } else if (!replica.healthy) {
+                replica.healthy = true;
+                log.info("Read replica {} is back in rotation (lag {}s).", replica.name(), lag);
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (isPoolExhausted(replica.dataSource, e)) {
+                log.debug("Read replica {} health check skipped, pool is busy: {}", replica.name(), e.getMessage());
+            } else {
+                markUnhealthy(replica, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * O Hikari lança {@link SQLTransientConnectionException} quando o {@code connection-timeout} acaba, tanto com o
+     * pool todo emprestado quanto com a réplica fora do ar (aí com a última falha ao abrir conexão como causa, se já
+     * houve uma). Só o primeiro caso mantém a réplica na rotação: a leitura vai para a próxima réplica ou o primário.
+     */
+    private static boolean isPoolExhausted(HikariDataSource pool, Exception e) {
+        if (!(e instanceof SQLTransientConnectionException) || e.getCause() != null) {
+            return false;
+        }
+        HikariPoolMXBean poolState = pool.getHikariPoolMXBean();
+        return poolState != null && poolState.getActiveConnections() >= pool.getMaximumPoolSize();
+    }
+
+    /**
+     * Lê o atraso de {@code datasource-routing.lag-query} (por padrão {@code SHOW REPLICA STATUS}); uma consulta
+     * própria pode devolver o atraso na primeira coluna.
+     *
+     * @return atraso da réplica em segundos, {@code 0} quando a consulta não retorna linhas (instância que não é
+     * réplica) ou está vazia, e {@code null} quando a replicação está parada
+     */
+    private Long lagSeconds(Connection connection) throws SQLException {
+        if (lagQuery.isBlank()) {
+            return connection.isValid(2) ? 0L : null;
+        }
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                return 0L;
+            }
+            for (String column : LAG_COLUMNS) {
+                try {
+                    long lag = rs.getLong(rs.findColumn(column));
+                    return rs.wasNull() ? null : lag;
+                } catch (SQLException e) {
+                    // Coluna com o nome antigo (MySQL < 8.0.22); tenta a próxima.
+                }
+            }
+            long lag = rs.getLong(1);
+            return rs.wasNull() ? null : lag;
+        }
+    }
+
+    private void markUnhealthy(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Read replica {} removed from rotation: {}", replica.name(), reason);
+        }
+    }
+
+    private static Counter routingCounter(MeterRegistry registry, String target) {
+        return Counter.builder("datasource.routing.reads")
+                .description("Connections handed to read-only transactions, by target")
+                .tag("target", target)
+                .register(registry);
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private String name() {
+            return dataSource.getPoolName();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.ancora.customerbookshelf.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import lombok.Setter;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Amostragem dos logs INFO por requisição (configurada no logback-spring.xml): dos loggers que começam com
+ * {@code loggerPrefix}, só 1 a cada {@code rate} requisições registra as linhas INFO. A decisão usa o trace id
+ * do MDC, então uma requisição amostrada mantém todas as suas linhas. WARN e ERROR nunca são descartados.
+ * Por ser um TurboFilter, a linha descartada não chega a ser formatada nem vira evento.
+ */
+@Setter
+public class RequestLogSamplingFilter extends TurboFilter {
+
+    private String loggerPrefix;
+    private int rate = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (rate <= 1 || level != Level.INFO || loggerPrefix == null || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return isSampled() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean isSampled() {
+        String traceId = MDC.get("traceId");
+        if (traceId == null || traceId.isEmpty()) {
+            return ThreadLocalRandom.current().nextInt(rate) == 0;
+        }
+        return Math.floorMod(traceId.hashCode(), rate) == 0;
+    }
+}
@@ -1,8 +1,13 @@
 package com.ancora.customerbookshelf.controller;
 
+import com.ancora.customerbookshelf.dto.CursorPageDTO;
 import com.ancora.customerbookshelf.dto.CustomerDTO;
+import com.ancora.customerbookshelf.dto.CustomerImportResultDTO;
 import com.ancora.customerbookshelf.dto.UpdateCustomerDTO;
+import com.ancora.customerbookshelf.service.CustomerImportService;
+import com.ancora.customerbookshelf.service.ConditionalGetService;
 import com.ancora.customerbookshelf.service.CustomerService;
+import com.ancora.customerbookshelf.service.DataFormat;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,8 +15,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 
 @RestController
@@ -21,6 +31,8 @@ import org.springframework.web.bind.annotation.*;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final CustomerImportService customerImportService;
+    private final ConditionalGetService conditionalGetService;
 
     @PostMapping(consumes = "application/json", produces = "application/json")
     public ResponseEntity<CustomerDTO> create(@Valid @RequestBody CustomerDTO request) {
@@ -28,10 +40,23 @@ public class CustomerController {
         return ResponseEntity.ok(customerService.createCustomer(request));
     }
 
+    /**
+     * Importação em massa: corpo em {@code text/csv} (cabeçalho {@code name,email,cpf}) ou {@code application/x-ndjson}.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"}, produces = "application/json")
+    public ResponseEntity<CustomerImportResultDTO> importCustomers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                                   InputStream body) throws IOException {
+        log.info("Received request to import customers with content type: {}", contentType);
+        return ResponseEntity.ok(customerImportService.importCustomers(body, DataFormat.fromContentType(contentType)));
+    }
+
+    /**
+     * Responde com ETag; com {@code If-None-Match} igual à versão atual, devolve {@code 304} sem montar o cliente.
+     */
     @GetMapping(value = "/{id}", produces = "application/json")
-    public ResponseEntity<CustomerDTO> getById(@PathVariable Long id) {
+    public ResponseEntity<CustomerDTO> getById(@PathVariable Long id, @RequestParam(required = false) Integer top, WebRequest request) {
         log.info("Received request to get customer by id: {}", id);
-        return ResponseEntity.ok(customerService.getCustomerById(id));
+        return conditionalGetService.get(id, ConditionalGetService.CUSTOMER, request, () -> customerService.getCustomerById(id, top));
     }
 
     @PutMapping(value = "/{id}", consumes = "application/json", produces = "application/json")
@@ -49,9 +74,20 @@ public class CustomerController {
 
     @GetMapping(produces = "application/json")
     public ResponseEntity<Page<CustomerDTO>> searchAll(
-            @PageableDefault(page = 0, size = 20, sort = "id", direction = Sort.Direction.ASC) Pageable pageable) {
+            @PageableDefault(page = 0, size = 20, sort = "id", direction = Sort.Direction.ASC) Pageable pageable,
+            @RequestParam(required = false) Integer top) {
         log.info("Received request to search all customers with pageable: {}", pageable);
-        Page<CustomerDTO> page = customerService.getAllCustomers(pageable);
+        Page<CustomerDTO> page = customerService.getAllCustomers(pageable, top);
         return ResponseEntity.ok(page);
     }
+
+    /**
+     * Paginação por cursor, ativada pela presença do parâmetro {@code cursor} (vazio na primeira página).
+     */
+    @GetMapping(params = "cursor", produces = "application/json")
+    public ResponseEntity<CursorPageDTO<CustomerDTO>> searchAllByCursor(
+            @RequestParam String cursor, @RequestParam(defaultValue = "20") int size, @RequestParam(required = false) Integer top) {
+        log.info("Received request to search customers with cursor: {} and size: {}", cursor, size);
+        return ResponseEntity.ok(customerService.getCustomersAfter(cursor, size, top));
+    }
 }
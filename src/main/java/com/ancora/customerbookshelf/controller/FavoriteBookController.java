@@ -1,9 +1,18 @@
 package com.ancora.customerbookshelf.controller;
 
 import com.ancora.customerbookshelf.dto.BookDTO;
+import com.ancora.customerbookshelf.dto.BulkAddJobDTO;
 import com.ancora.customerbookshelf.dto.BulkAddRequestDTO;
-import com.ancora.customerbookshelf.service.AsyncBookProcessorService;
+import com.ancora.customerbookshelf.dto.CursorPageDTO;
+import com.ancora.customerbookshelf.dto.FavoriteSearchRequestDTO;
+import com.ancora.customerbookshelf.dto.FavoriteSearchResultDTO;
+import com.ancora.customerbookshelf.mapper.BulkAddJobMapper;
+import com.ancora.customerbookshelf.service.BulkAddJob;
+import com.ancora.customerbookshelf.service.BulkAddService;
+import com.ancora.customerbookshelf.service.ConditionalGetService;
 import com.ancora.customerbookshelf.service.FavoriteBookService;
+import com.ancora.customerbookshelf.service.FavoriteSearchService;
+import com.ancora.customerbookshelf.service.IdempotencyService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -12,6 +21,10 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
 
 
 @RestController
@@ -21,19 +34,59 @@ import org.springframework.web.bind.annotation.*;
 public class FavoriteBookController {
 
     private final FavoriteBookService favoriteBookService;
-    private final AsyncBookProcessorService asyncBookProcessorService;
+    private final BulkAddService bulkAddService;
+    private final IdempotencyService idempotencyService;
+    private final ConditionalGetService conditionalGetService;
+    private final FavoriteSearchService favoriteSearchService;
 
     @PostMapping("/bulk-add")
-    public ResponseEntity<Void> bulkAddBooks(@PathVariable Long customerId, @RequestBody BulkAddRequestDTO request) {
-        log.info("Received bulk add request for customer {} with {} books", customerId, request.getIsbns().size());
-        asyncBookProcessorService.processBookAdditions(customerId, request.getIsbns());
-        return ResponseEntity.accepted().build();
+    public ResponseEntity<BulkAddJobDTO> bulkAddBooks(@PathVariable Long customerId, @RequestBody BulkAddRequestDTO request) {
+        log.info("Received bulk add request for customer {} with {} books", customerId, request.getIsbns() == null ? 0 : request.getIsbns().size());
+        BulkAddJob job = bulkAddService.submit(customerId, request.getIsbns());
+        URI statusUri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{jobId}").buildAndExpand(job.getId()).toUri();
+        return ResponseEntity.accepted().location(statusUri).body(BulkAddJobMapper.toDTO(job));
+    }
+
+    @GetMapping("/bulk-add/{jobId}")
+    public ResponseEntity<BulkAddJobDTO> getBulkAddJob(@PathVariable Long customerId, @PathVariable String jobId) {
+        log.info("Received request to get bulk add job {} for customer {}", jobId, customerId);
+        return ResponseEntity.ok(BulkAddJobMapper.toDTO(bulkAddService.getJob(customerId, jobId)));
     }
 
+    /**
+     * As listagens respondem com ETag; com {@code If-None-Match} igual à versão atual, devolvem {@code 304} sem ler os favoritos.
+     */
     @GetMapping
-    public ResponseEntity<Page<BookDTO>> getFavorites(@PathVariable Long customerId, @PageableDefault(size = 20) Pageable pageable) {
+    public ResponseEntity<Page<BookDTO>> getFavorites(@PathVariable Long customerId, @PageableDefault(size = 20) Pageable pageable,
+                                                      WebRequest request) {
         log.info("Received request to get all favorite books for customer {}", customerId);
-        return ResponseEntity.ok(favoriteBookService.getFavoriteBooks(customerId, pageable));
+        return conditionalGetService.get(customerId, ConditionalGetService.FAVORITES, request,
+                () -> favoriteBookService.getFavoriteBooks(customerId, pageable));
+    }
+
+    /**
+     * Paginação por cursor, ativada pela presença do parâmetro {@code cursor} (vazio na primeira página).
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDTO<BookDTO>> getFavoritesByCursor(@PathVariable Long customerId,
+                                                                      @RequestParam String cursor,
+                                                                      @RequestParam(defaultValue = "20") int size,
+                                                                      WebRequest request) {
+        log.info("Received request to get favorite books for customer {} with cursor: {}", customerId, cursor);
+        return conditionalGetService.get(customerId, ConditionalGetService.FAVORITES, request,
+                () -> favoriteBookService.getFavoriteBooksAfter(customerId, cursor, size));
+    }
+
+    /**
+     * Busca facetada: texto em título/subtítulo/sinopse ({@code q}), filtros por autor, assunto, editora, formato,
+     * faixa de ano e de preço, e contagens das facetas sobre o resultado. Também responde com ETag.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<FavoriteSearchResultDTO> search(@PathVariable Long customerId, FavoriteSearchRequestDTO search,
+                                                          WebRequest request) {
+        log.info("Received request to search favorite books for customer {}: {}", customerId, search);
+        return conditionalGetService.get(customerId, ConditionalGetService.FAVORITES, request,
+                () -> favoriteSearchService.search(customerId, search));
     }
 
     @GetMapping("/{isbn}")
@@ -42,17 +95,39 @@ public class FavoriteBookController {
         return ResponseEntity.ok(favoriteBookService.getFavoriteBookByIsbn(customerId, isbn));
     }
 
+    /**
+     * Idempotente: {@code 201} quando o livro é adicionado e {@code 200} quando já era favorito.
+     * Com {@code Idempotency-Key}, uma repetição recebe o status da primeira chamada sem reexecutá-la.
+     */
     @PostMapping("/{isbn}")
-    public ResponseEntity<Void> addBook(@PathVariable Long customerId, @PathVariable String isbn) {
+    public ResponseEntity<Void> addBook(@PathVariable Long customerId, @PathVariable String isbn,
+                                        @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         log.info("Received request to add book with isbn {} to favorites for customer {}", isbn, customerId);
-        favoriteBookService.addBookToFavorites(customerId, isbn);
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+        IdempotencyService.Outcome outcome = idempotencyService.execute(idempotencyKey, "POST /customers/" + customerId + "/favorites/" + isbn,
+                () -> favoriteBookService.addBookToFavorites(customerId, isbn) ? HttpStatus.CREATED : HttpStatus.OK);
+        return toResponse(outcome);
     }
 
+    /**
+     * Idempotente: responde {@code 204} mesmo quando o livro não estava nos favoritos.
+     */
     @DeleteMapping("/{isbn}")
-    public ResponseEntity<Void> removeBook(@PathVariable Long customerId, @PathVariable String isbn) {
+    public ResponseEntity<Void> removeBook(@PathVariable Long customerId, @PathVariable String isbn,
+                                           @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         log.info("Received request to remove book with isbn {} from favorites for customer {}", isbn, customerId);
-        favoriteBookService.removeBookFromFavorites(customerId, isbn);
-        return ResponseEntity.noContent().build();
+        IdempotencyService.Outcome outcome = idempotencyService.execute(idempotencyKey, "DELETE /customers/" + customerId + "/favorites/" + isbn,
+                () -> {
+                    favoriteBookService.removeBookFromFavorites(customerId, isbn);
+                    return HttpStatus.NO_CONTENT;
+                });
+        return toResponse(outcome);
+    }
+
+    private ResponseEntity<Void> toResponse(IdempotencyService.Outcome outcome) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(outcome.status());
+        if (outcome.replayed()) {
+            response.header(IdempotencyService.REPLAYED_HEADER, "true");
+        }
+        return response.build();
     }
 }
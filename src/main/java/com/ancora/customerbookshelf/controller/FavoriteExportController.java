@@ -0,0 +1,76 @@
+package com.ancora.customerbookshelf.controller;
+
+import com.ancora.customerbookshelf.service.DataFormat;
+import com.ancora.customerbookshelf.service.FavoriteExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação em streaming dos favoritos: de um cliente ou de todos (carga noturna de analytics).
+ * Com {@code Accept-Encoding: gzip} a resposta é comprimida.
+ */
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+@Slf4j
+public class FavoriteExportController {
+
+    private final FavoriteExportService favoriteExportService;
+
+    @GetMapping("/customers/{customerId}/favorites/export")
+    public ResponseEntity<StreamingResponseBody> exportCustomerFavorites(
+            @PathVariable Long customerId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("Received request to export favorites of customer {} as {}", customerId, format);
+        DataFormat exportFormat = DataFormat.from(format);
+        favoriteExportService.ensureCustomerExists(customerId);
+
+        return streaming("customer-" + customerId + "-favorites", exportFormat, acceptEncoding, out -> {
+            long rows = favoriteExportService.exportCustomer(customerId, exportFormat, out);
+            log.info("Exported {} favorites of customer {}", rows, customerId);
+        });
+    }
+
+    @GetMapping("/export/favorites")
+    public ResponseEntity<StreamingResponseBody> exportAllFavorites(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("Received request to export all favorites as {}", format);
+        DataFormat exportFormat = DataFormat.from(format);
+
+        return streaming("favorites", exportFormat, acceptEncoding, out -> {
+            long rows = favoriteExportService.exportAll(exportFormat, out);
+            log.info("Exported {} favorites of all customers", rows);
+        });
+    }
+
+    private ResponseEntity<StreamingResponseBody> streaming(String fileName, DataFormat format, String acceptEncoding,
+                                                           StreamingResponseBody body) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName + "." + format.getExtension())
+                        .build().toString());
+        if (!gzip) {
+            return response.body(body);
+        }
+        return response
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .body(out -> {
+                    GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+                    body.writeTo(gzipOut);
+                    gzipOut.finish();
+                });
+    }
+}
@@ -0,0 +1,45 @@
+package com.ancora.customerbookshelf.controller;
+
+import com.ancora.customerbookshelf.dto.RecommendationDTO;
+import com.ancora.customerbookshelf.service.RecommendationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * "Quem favoritou este também favoritou": recomendações por livro e por cliente, do mais para o menos frequente.
+ */
+@RestController
+@RequestMapping("/api/v1")
+@ConditionalOnProperty(name = "recommendations.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationController {
+
+    private final RecommendationService recommendationService;
+
+    @GetMapping("/books/{isbn}/recommendations")
+    public ResponseEntity<List<RecommendationDTO>> forBook(@PathVariable String isbn,
+                                                           @RequestParam(defaultValue = "10") int limit) {
+        log.info("Received request to get recommendations for book {}", isbn);
+        return ResponseEntity.ok(recommendationService.forBook(isbn, limit));
+    }
+
+    /**
+     * Livros que ainda não estão nos favoritos do cliente, somando os vizinhos de cada livro da estante.
+     */
+    @GetMapping("/customers/{customerId}/recommendations")
+    public ResponseEntity<List<RecommendationDTO>> forCustomer(@PathVariable Long customerId,
+                                                               @RequestParam(defaultValue = "10") int limit) {
+        log.info("Received request to get recommendations for customer {}", customerId);
+        return ResponseEntity.ok(recommendationService.forCustomer(customerId, limit));
+    }
+}
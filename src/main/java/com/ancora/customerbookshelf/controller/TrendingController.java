@@ -0,0 +1,31 @@
+package com.ancora.customerbookshelf.controller;
+
+import com.ancora.customerbookshelf.dto.TrendingBooksDTO;
+import com.ancora.customerbookshelf.service.TrendingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/books/trending")
+@ConditionalOnProperty(name = "trending.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class TrendingController {
+
+    private final TrendingService trendingService;
+
+    /**
+     * Livros mais favoritados na janela, lidos do snapshot pré-calculado (sem consulta ao banco).
+     */
+    @GetMapping
+    public ResponseEntity<TrendingBooksDTO> getTrending(@RequestParam(defaultValue = "10") int limit) {
+        log.info("Received request to get trending books with limit {}", limit);
+        return ResponseEntity.ok(trendingService.top(limit));
+    }
+}
@@ -0,0 +1,14 @@
+package com.ancora.customerbookshelf.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkAddItemDTO {
+    private String isbn;
+    private String outcome;
+    private String message;
+}
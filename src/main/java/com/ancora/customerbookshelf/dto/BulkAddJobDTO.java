@@ -0,0 +1,27 @@
+package com.ancora.customerbookshelf.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkAddJobDTO {
+    private String jobId;
+    private Long customerId;
+    private String status;
+    private int total;
+    private long processed;
+    private long added;
+    private long alreadyFavorite;
+    private long notFound;
+    private long failed;
+    private Instant createdAt;
+    private Instant finishedAt;
+    private String error;
+    private List<BulkAddItemDTO> items;
+}
@@ -0,0 +1,17 @@
+package com.ancora.customerbookshelf.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Página da paginação por cursor. {@code nextCursor} é nulo na última página.
+ */
+@Data
+@Builder
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+}
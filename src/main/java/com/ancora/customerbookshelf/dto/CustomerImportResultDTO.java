@@ -0,0 +1,22 @@
+package com.ancora.customerbookshelf.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CustomerImportResultDTO {
+    private long total;
+    private long imported;
+    private long rejected;
+    private List<Rejection> rejections;
+    private boolean rejectionsTruncated;
+
+    /**
+     * Linha recusada. {@code line} é o número da linha no arquivo (a partir de 1, contando o cabeçalho do CSV).
+     */
+    public record Rejection(long line, String email, String cpf, String reason) {
+    }
+}
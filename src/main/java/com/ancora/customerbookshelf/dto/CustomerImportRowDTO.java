@@ -0,0 +1,29 @@
+package com.ancora.customerbookshelf.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.hibernate.validator.constraints.br.CPF;
+
+/**
+ * Uma linha do arquivo de importação de clientes.
+ */
+@Data
+@AllArgsConstructor
+public class CustomerImportRowDTO {
+
+    @NotBlank(message = "Name cannot be blank")
+    @Size(max = 150, message = "Name must have at most 150 characters")
+    private String name;
+
+    @NotBlank(message = "Email cannot be blank")
+    @Email(message = "Email should be valid")
+    @Size(max = 150, message = "Email must have at most 150 characters")
+    private String email;
+
+    @NotBlank(message = "CPF cannot be blank")
+    @CPF(message = "CPF should be valid")
+    private String cpf;
+}
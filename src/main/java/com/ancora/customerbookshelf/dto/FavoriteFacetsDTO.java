@@ -0,0 +1,26 @@
+package com.ancora.customerbookshelf.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Contagens das facetas sobre os livros que atendem à busca, da mais para a menos frequente.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FavoriteFacetsDTO {
+    private List<FacetCount> authors;
+    private List<FacetCount> subjects;
+    private List<FacetCount> publishers;
+    private List<FacetCount> formats;
+    private List<FacetCount> years;
+    private Double minPrice;
+    private Double maxPrice;
+
+    public record FacetCount(String value, int count) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.ancora.customerbookshelf.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Parâmetros da busca nos favoritos. Valores repetidos de uma mesma faceta ({@code author=A&author=B}) são
+ * combinados com OU; facetas diferentes, o texto e as faixas de ano e preço, com E.
+ */
+@Data
+public class FavoriteSearchRequestDTO {
+    private String q;
+    private List<String> author;
+    private List<String> subject;
+    private List<String> publisher;
+    private List<String> format;
+    private Integer yearFrom;
+    private Integer yearTo;
+    private Double priceMin;
+    private Double priceMax;
+    private int page = 0;
+    private int size = 20;
+    private int facetSize = 10;
+}
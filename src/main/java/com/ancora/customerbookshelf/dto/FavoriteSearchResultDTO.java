@@ -0,0 +1,16 @@
+package com.ancora.customerbookshelf.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class FavoriteSearchResultDTO {
+    private List<BookDTO> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private FavoriteFacetsDTO facets;
+}
@@ -0,0 +1,15 @@
+package com.ancora.customerbookshelf.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RecommendationDTO {
+    private BookDTO book;
+    /**
+     * Quantos clientes favoritaram este livro junto com o de referência; na recomendação por cliente, a soma
+     * sobre os livros da estante.
+     */
+    private int score;
+}
@@ -0,0 +1,21 @@
+package com.ancora.customerbookshelf.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class TrendingBooksDTO {
+    private int windowDays;
+    private LocalDateTime computedAt;
+    private List<TrendingBook> books;
+
+    /**
+     * @param favorites favoritos adicionados menos removidos na janela
+     */
+    public record TrendingBook(BookDTO book, long favorites) {
+    }
+}
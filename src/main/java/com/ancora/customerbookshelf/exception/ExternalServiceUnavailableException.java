@@ -0,0 +1,7 @@
+package com.ancora.customerbookshelf.exception;
+
+public class ExternalServiceUnavailableException extends RuntimeException {
+    public ExternalServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -66,6 +66,23 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(payload);
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorPayload> handleInvalidRequest(
+            InvalidRequestException ex,
+            HttpServletRequest request
+    ) {
+        log.warn("InvalidRequestException on request {}: {}", request.getRequestURI(), ex.getMessage());
+        ErrorPayload payload = ErrorPayload.builder()
+                .timestamp(Instant.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(payload);
+    }
+
     @ExceptionHandler(ConflictException.class)
     public ResponseEntity<ErrorPayload> handleConflict(
             ConflictException ex,
@@ -83,6 +100,23 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(payload);
     }
 
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorPayload> handleIdempotencyKeyReused(
+            IdempotencyKeyReusedException ex,
+            HttpServletRequest request
+    ) {
+        log.warn("IdempotencyKeyReusedException on request {}: {}", request.getRequestURI(), ex.getMessage());
+        ErrorPayload payload = ErrorPayload.builder()
+                .timestamp(Instant.now())
+                .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                .error(HttpStatus.UNPROCESSABLE_ENTITY.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(payload);
+    }
+
     @ExceptionHandler(NoContentException.class)
     public ResponseEntity<ErrorPayload> handleNoContent(
             NoContentException ex,
@@ -117,6 +151,23 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(payload);
     }
 
+    @ExceptionHandler(ExternalServiceUnavailableException.class)
+    public ResponseEntity<ErrorPayload> handleExternalServiceUnavailable(
+            ExternalServiceUnavailableException ex,
+            HttpServletRequest request
+    ) {
+        log.error("ExternalServiceUnavailableException on request {}: {}", request.getRequestURI(), ex.getMessage());
+        ErrorPayload payload = ErrorPayload.builder()
+                .timestamp(Instant.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(payload);
+    }
+
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ErrorPayload> handleDataIntegrity(
             DataIntegrityViolationException ex,
@@ -2,7 +2,9 @@ package com.ancora.customerbookshelf.mapper;
 
 import com.ancora.customerbookshelf.dto.BookDTO;
 import com.ancora.customerbookshelf.dto.DimensionsDTO;
+import com.ancora.customerbookshelf.dto.brasilapi.BookResponseDTO;
 import com.ancora.customerbookshelf.model.Book;
+import com.ancora.customerbookshelf.model.Dimensions;
 
 import java.util.Optional;
 
@@ -29,4 +31,28 @@ public class BookMapper {
                 .retailPrice(book.getRetailPrice())
                 .build();
     }
+
+    public static Book toEntity(BookResponseDTO responseDTO) {
+        Dimensions dimensions = Optional.ofNullable(responseDTO.getDimensions())
+                .map(d -> Dimensions.builder().width(d.getWidth()).height(d.getHeight()).unit(d.getUnit()).build())
+                .orElse(null);
+
+        return Book.builder()
+                .isbn(responseDTO.getIsbn())
+                .title(responseDTO.getTitle())
+                .subtitle(responseDTO.getSubtitle())
+                .authors(responseDTO.getAuthors())
+                .publisher(responseDTO.getPublisher())
+                .synopsis(responseDTO.getSynopsis())
+                .dimensions(dimensions)
+                .year(responseDTO.getYear())
+                .format(responseDTO.getFormat())
+                .pageCount(responseDTO.getPageCount())
+                .subjects(responseDTO.getSubjects())
+                .location(responseDTO.getLocation())
+                .retailPrice(responseDTO.getRetailPrice())
+                .coverUrl(responseDTO.getCoverUrl())
+                .provider(responseDTO.getProvider())
+                .build();
+    }
 }
@@ -0,0 +1,41 @@
+package com.ancora.customerbookshelf.mapper;
+
+import com.ancora.customerbookshelf.dto.BulkAddItemDTO;
+import com.ancora.customerbookshelf.dto.BulkAddJobDTO;
+import com.ancora.customerbookshelf.service.BulkAddJob;
+
+import java.util.List;
+
+public class BulkAddJobMapper {
+
+    public static BulkAddJobDTO toDTO(BulkAddJob job) {
+        List<BulkAddItemDTO> items = job.getIsbns().stream()
+                .map(isbn -> {
+                    BulkAddJob.ItemResult result = job.getResult(isbn);
+                    return BulkAddItemDTO.builder()
+                            .isbn(isbn)
+                            .outcome(result.outcome().name())
+                            .message(result.message())
+                            .build();
+                })
+                .toList();
+
+        long pending = items.stream().filter(item -> BulkAddJob.Outcome.PENDING.name().equals(item.getOutcome())).count();
+
+        return BulkAddJobDTO.builder()
+                .jobId(job.getId())
+                .customerId(job.getCustomerId())
+                .status(job.getStatus().name())
+                .total(items.size())
+                .processed(items.size() - pending)
+                .added(job.count(BulkAddJob.Outcome.ADDED))
+                .alreadyFavorite(job.count(BulkAddJob.Outcome.ALREADY_FAVORITE))
+                .notFound(job.count(BulkAddJob.Outcome.NOT_FOUND))
+                .failed(job.count(BulkAddJob.Outcome.FAILED))
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .error(job.getError())
+                .items(items)
+                .build();
+    }
+}
@@ -2,20 +2,16 @@ package com.ancora.customerbookshelf.mapper;
 
 import com.ancora.customerbookshelf.dto.CustomerDTO;
 import com.ancora.customerbookshelf.dto.FavoritesSummaryDTO;
-import com.ancora.customerbookshelf.model.Book;
 import com.ancora.customerbookshelf.model.Customer;
+import com.ancora.customerbookshelf.model.FavoriteTermCount;
+import com.ancora.customerbookshelf.model.FavoriteTermCount.TermType;
+import com.ancora.customerbookshelf.util.TopK;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public class CustomerMapper {
 
-    public static CustomerDTO ToDTO(Customer customer){
-        FavoritesSummaryDTO summary = calculateSummary(customer.getFavoriteBooks());
-
+    public static CustomerDTO ToDTO(Customer customer, FavoritesSummaryDTO summary){
         return CustomerDTO.builder()
                 .cpf(customer.getCpf())
                 .email(customer.getEmail())
@@ -33,43 +29,22 @@ public class CustomerMapper {
                 .build();
     }
 
-    private static FavoritesSummaryDTO calculateSummary(java.util.Set<Book> books) {
-        if (books == null || books.isEmpty()) {
-            return FavoritesSummaryDTO.builder().count(0).
-                    mostFrequentAuthors(Collections.emptyList()).mostFrequentThemes(Collections.emptyList()).build();
+    /**
+     * Monta o resumo a partir dos contadores pré-calculados em {@code customer_favorite_term}, com os
+     * {@code topK} autores e assuntos mais frequentes (empates incluídos).
+     */
+    public static FavoritesSummaryDTO toSummary(long favoritesCount, List<FavoriteTermCount> terms, int topK) {
+        TopK<String> authors = new TopK<>(terms.size());
+        TopK<String> subjects = new TopK<>();
+        for (FavoriteTermCount term : terms) {
+            TopK<String> target = term.getTermType() == TermType.AUTHOR ? authors : subjects;
+            target.add(term.getTerm(), term.getFavoriteCount());
         }
 
-        List<String> allAuthors = books.stream()
-                .flatMap(book -> book.getAuthors().stream())
-                .collect(Collectors.toList());
-
-        List<String> allSubjects = books.stream()
-                .flatMap(book -> book.getSubjects().stream())
-                .collect(Collectors.toList());
-
-        List<String> mostFrequentAuthors = findMostFrequent(allAuthors);
-        List<String> mostFrequentThemes = findMostFrequent(allSubjects);
-
         return FavoritesSummaryDTO.builder()
-                .count(books.size())
-                .mostFrequentAuthors(mostFrequentAuthors)
-                .mostFrequentThemes(mostFrequentThemes)
+                .count(favoritesCount)
+                .mostFrequentAuthors(authors.top(topK))
+                .mostFrequentThemes(subjects.top(topK))
                 .build();
     }
-
-    private static <T> List<T> findMostFrequent(List<T> list) {
-        if (list.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        Map<T, Long> frequencyMap = list.stream()
-                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
-
-        long maxFrequency = Collections.max(frequencyMap.values());
-
-        return frequencyMap.entrySet().stream()
-                .filter(entry -> entry.getValue() == maxFrequency)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-    }
 }
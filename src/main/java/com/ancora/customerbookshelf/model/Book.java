@@ -4,14 +4,17 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
 @Data
 @Entity
-@Table(name = "book")
+@Table(name = "book", indexes = @Index(name = "idx_book_last_fetched_at", columnList = "last_fetched_at"))
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -25,7 +28,11 @@ public class Book {
 
     private String subtitle;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    // LAZY + hibernate.default_batch_fetch_size: as coleções de uma página inteira de livros são carregadas em uma consulta.
+    // Ficam fora de equals/hashCode/toString para que colocar o livro em um Set não dispare a carga.
+    @ElementCollection(fetch = FetchType.LAZY)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @CollectionTable(name = "book_authors", joinColumns = @JoinColumn(name = "book_isbn"))
     @Column(name = "author")
     private List<String> authors;
@@ -45,7 +52,9 @@ public class Book {
 
     private Integer pageCount;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection(fetch = FetchType.LAZY)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @CollectionTable(name = "book_subjects", joinColumns = @JoinColumn(name = "book_isbn"))
     @Column(name = "subject")
     private List<String> subjects;
@@ -57,4 +66,7 @@ public class Book {
     private String coverUrl;
 
     private String provider;
+
+    // Quando os metadados vieram da BrasilAPI pela última vez; nulo em livros gravados antes da coluna existir.
+    private LocalDateTime lastFetchedAt;
 }
\ No newline at end of file
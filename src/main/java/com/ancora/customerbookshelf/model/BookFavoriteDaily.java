@@ -0,0 +1,43 @@
+package com.ancora.customerbookshelf.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Saldo diário de favoritos de um livro (adicionados menos removidos), a persistência do ranking de livros em alta.
+ * É escrito só por incrementos ({@code TrendingJdbcRepository}), então várias instâncias somam suas contagens.
+ */
+@Data
+@Entity
+@Table(name = "book_favorite_daily", indexes = @Index(name = "idx_book_favorite_daily_date", columnList = "bucket_date"))
+@IdClass(BookFavoriteDaily.Key.class)
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookFavoriteDaily {
+
+    @Id
+    @Column(name = "book_isbn", length = 20)
+    private String bookIsbn;
+
+    @Id
+    @Column(name = "bucket_date")
+    private LocalDate bucketDate;
+
+    @Column(nullable = false)
+    private long favorites;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private String bookIsbn;
+        private LocalDate bucketDate;
+    }
+}
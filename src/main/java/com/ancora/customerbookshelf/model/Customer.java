@@ -39,11 +39,32 @@ public class Customer {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * Mantido apenas por UPDATEs atômicos em {@code FavoritesSummaryJdbcRepository}; o Hibernate nunca o sobrescreve.
+     */
+    @Column(name = "favorites_count", nullable = false, updatable = false)
+    private long favoritesCount;
+
+    /**
+     * Versão da representação do cliente (perfil, resumo e favoritos), usada nas ETags. Incrementada só por UPDATEs
+     * no banco a cada alteração; não é o {@code @Version} do JPA e o Hibernate nunca a sobrescreve.
+     */
+    @Column(name = "version", nullable = false, updatable = false)
+    private long version;
+
+    /**
+     * Por ser um {@code Set}, a tabela de junção tem chave primária composta {@code (customer_id, book_isbn)},
+     * usada pelas consultas de pertinência de {@code FavoriteBookJdbcRepository}. O índice em {@code book_isbn}
+     * atende as buscas pelo lado do livro.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToMany(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinTable(
             name = "customer_favorite_books",
             joinColumns = @JoinColumn(name = "customer_id"),
-            inverseJoinColumns = @JoinColumn(name = "book_isbn")
+            inverseJoinColumns = @JoinColumn(name = "book_isbn"),
+            indexes = @Index(name = "idx_customer_favorite_books_isbn", columnList = "book_isbn")
     )
     private Set<Book> favoriteBooks = new HashSet<>();
 
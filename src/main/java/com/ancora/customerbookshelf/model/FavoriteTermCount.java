@@ -0,0 +1,51 @@
+package com.ancora.customerbookshelf.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Contador de quantos favoritos de um cliente têm um determinado autor ou assunto.
+ * É mantido por {@code FavoritesSummaryService} na mesma transação que altera os favoritos,
+ * para que o resumo do cliente seja lido sem carregar a coleção de livros.
+ */
+@Data
+@Entity
+@Table(name = "customer_favorite_term")
+@IdClass(FavoriteTermCount.Key.class)
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FavoriteTermCount {
+
+    public enum TermType {AUTHOR, SUBJECT}
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "term_type", length = 10)
+    private TermType termType;
+
+    @Id
+    @Column(length = 255)
+    private String term;
+
+    @Column(name = "favorite_count", nullable = false)
+    private long favoriteCount;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long customerId;
+        private TermType termType;
+        private String term;
+    }
+}
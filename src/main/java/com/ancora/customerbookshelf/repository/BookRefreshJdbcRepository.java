@@ -0,0 +1,129 @@
+package com.ancora.customerbookshelf.repository;
+
+import com.ancora.customerbookshelf.dto.brasilapi.BookResponseDTO;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Consultas e escritas do refresh-ahead de metadados de livros.
+ * Autores e assuntos não são atualizados: eles alimentam os contadores do resumo de favoritos
+ * ({@code customer_favorite_term}), que ficariam inconsistentes se mudassem por fora.
+ * Atualizar um livro cujos metadados mudaram incrementa a versão dos clientes que o favoritaram, invalidando as ETags
+ * da lista de favoritos.
+ */
+@Repository
+@Timed("jdbc.repository.invocations")
+@RequiredArgsConstructor
+public class BookRefreshJdbcRepository {
+
+    private static final String FIND_STALE =
+            "SELECT b.isbn FROM book b LEFT JOIN customer_favorite_books f ON f.book_isbn = b.isbn " +
+            "WHERE b.last_fetched_at IS NULL OR b.last_fetched_at < ? " +
+            "GROUP BY b.isbn ORDER BY COUNT(f.customer_id) DESC, b.isbn LIMIT ?";
+
+    private static final String METADATA_COLUMNS = "title, subtitle, publisher, synopsis, width, height, unit, " +
+            "year, format, page_count, location, retail_price, cover_url, provider";
+
+    // Só regrava (e só conta) a linha quando alguma coluna mudou; <=> compara NULLs como iguais.
+    private static final String UPDATE_METADATA_IF_CHANGED =
+            "UPDATE book SET " + assignments(METADATA_COLUMNS, " = ?", ", ") + ", last_fetched_at = ? " +
+            "WHERE isbn = ? AND NOT (" + assignments(METADATA_COLUMNS, " <=> ?", " AND ") + ")";
+
+    private static final String INCREMENT_FAVORITED_BY_VERSIONS =
+            "UPDATE customer SET version = version + 1 " +
+            "WHERE id IN (SELECT customer_id FROM customer_favorite_books WHERE book_isbn IN (:isbns))";
+
+    private static final String TOUCH =
+            "UPDATE book SET last_fetched_at = ? WHERE isbn = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * @return ISBNs buscados pela última vez antes de {@code fetchedBefore} (ou nunca), os mais favoritados primeiro
+     */
+    public List<String> findStaleIsbns(LocalDateTime fetchedBefore, int limit) {
+        return jdbcTemplate.queryForList(FIND_STALE, String.class, Timestamp.valueOf(fetchedBefore), limit);
+    }
+
+    /**
+     * Grava os metadados que mudaram e só então incrementa a versão de quem favoritou esses livros; os livros
+     * iguais ao que já está no banco só têm {@code last_fetched_at} atualizado.
+     *
+     * @return ISBNs cujos metadados mudaram
+     */
+    public List<String> updateMetadata(List<BookResponseDTO> books, LocalDateTime fetchedAt) {
+        if (books.isEmpty()) {
+            return List.of();
+        }
+        Timestamp timestamp = Timestamp.valueOf(fetchedAt);
+        List<Object[]> rows = new ArrayList<>(books.size());
+        for (BookResponseDTO book : books) {
+            Object[] metadata = metadata(book);
+            Object[] row = new Object[metadata.length * 2 + 2];
+            System.arraycopy(metadata, 0, row, 0, metadata.length);
+            row[metadata.length] = timestamp;
+            row[metadata.length + 1] = book.getIsbn();
+            System.arraycopy(metadata, 0, row, metadata.length + 2, metadata.length);
+            rows.add(row);
+        }
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_METADATA_IF_CHANGED, rows);
+
+        List<String> changed = new ArrayList<>();
+        List<String> unchanged = new ArrayList<>();
+        for (int i = 0; i < books.size(); i++) {
+            // SUCCESS_NO_INFO: o driver não informou a contagem, então o livro conta como alterado.
+            boolean updated = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+            (updated ? changed : unchanged).add(books.get(i).getIsbn());
+        }
+        touch(unchanged, fetchedAt);
+        if (!changed.isEmpty()) {
+            namedParameterJdbcTemplate.update(INCREMENT_FAVORITED_BY_VERSIONS, Map.of("isbns", changed));
+        }
+        return changed;
+    }
+
+    /**
+     * Marca os livros como verificados sem alterar os metadados (ex.: o provedor não os encontra mais),
+     * para que não voltem ao topo da fila a cada execução.
+     */
+    public void touch(Collection<String> isbns, LocalDateTime fetchedAt) {
+        if (isbns.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(fetchedAt);
+        List<Object[]> rows = new ArrayList<>(isbns.size());
+        for (String isbn : isbns) {
+            rows.add(new Object[]{timestamp, isbn});
+        }
+        jdbcTemplate.batchUpdate(TOUCH, rows);
+    }
+
+    private static Object[] metadata(BookResponseDTO book) {
+        boolean hasDimensions = book.getDimensions() != null;
+        return new Object[]{
+                book.getTitle(), book.getSubtitle(), book.getPublisher(), book.getSynopsis(),
+                hasDimensions ? book.getDimensions().getWidth() : null,
+                hasDimensions ? book.getDimensions().getHeight() : null,
+                hasDimensions ? book.getDimensions().getUnit() : null,
+                book.getYear(), book.getFormat(), book.getPageCount(), book.getLocation(), book.getRetailPrice(),
+                book.getCoverUrl(), book.getProvider()};
+    }
+
+    private static String assignments(String columns, String suffix, String delimiter) {
+        return Arrays.stream(columns.split(", ")).map(column -> column + suffix).collect(Collectors.joining(delimiter));
+    }
+}
@@ -1,16 +1,33 @@
 package com.ancora.customerbookshelf.repository;
 
 import com.ancora.customerbookshelf.model.Book;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 @Repository
 public interface BookRepository extends JpaRepository<Book, String> {
 
     @Query("SELECT b FROM Customer c JOIN c.favoriteBooks b WHERE c.id = :customerId")
-    Page<Book> findFavoritesByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+    List<Book> findFavoritesByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+
+    @Query("SELECT b FROM Customer c JOIN c.favoriteBooks b WHERE c.id = :customerId AND b.isbn > :afterIsbn ORDER BY b.isbn")
+    List<Book> findFavoritesByCustomerIdAfter(@Param("customerId") Long customerId, @Param("afterIsbn") String afterIsbn, Limit limit);
+
+    @Query("SELECT b FROM Customer c JOIN c.favoriteBooks b WHERE c.id = :customerId AND b.isbn = :isbn")
+    Optional<Book> findFavoriteByCustomerIdAndIsbn(@Param("customerId") Long customerId, @Param("isbn") String isbn);
+
+    @Query("SELECT b.isbn FROM Customer c JOIN c.favoriteBooks b WHERE c.id = :customerId AND b.isbn IN :isbns")
+    Set<String> findFavoriteIsbnsByCustomerIdAndIsbnIn(@Param("customerId") Long customerId, @Param("isbns") Collection<String> isbns);
+
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    Set<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
 }
@@ -0,0 +1,37 @@
+package com.ancora.customerbookshelf.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Leitura do grafo cliente × livro inteiro ({@code customer_favorite_books}) para montar o índice de
+ * recomendações. Como na exportação, o resultado é transmitido linha a linha ({@code fetchSize = Integer.MIN_VALUE}
+ * no MySQL) e cada par é entregue ao consumidor sem montar listas em memória.
+ */
+@Repository
+@Timed("jdbc.repository.invocations")
+public class CoFavoriteJdbcRepository {
+
+    private static final String SELECT_FAVORITES = "SELECT customer_id, book_isbn FROM customer_favorite_books";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CoFavoriteJdbcRepository(DataSource dataSource, @Value("${recommendations.jdbc-fetch-size}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * @param consumer recebe o ISBN e o id do cliente de cada favorito, em qualquer ordem
+     */
+    public void streamAll(ObjLongConsumer<String> consumer) {
+        jdbcTemplate.query(SELECT_FAVORITES, rs -> {
+            consumer.accept(rs.getString(2), rs.getLong(1));
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package com.ancora.customerbookshelf.repository;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Consultas e inserts em lote da importação de clientes. A checagem de conflitos é feita com um
+ * {@code IN} por lote, e os inserts vão em um único {@code batchUpdate} (reescrito em um INSERT
+ * multi-linha pelo driver com {@code rewriteBatchedStatements=true}).
+ */
+@Repository
+@Timed("jdbc.repository.invocations")
+@RequiredArgsConstructor
+public class CustomerImportJdbcRepository {
+
+    private static final String INSERT_CUSTOMER =
+            "INSERT INTO customer (name, cpf, email, created_at, favorites_count, version) VALUES (?, ?, ?, ?, 0, 0)";
+
+    private static final String INSERT_CUSTOMER_IF_ABSENT =
+            "INSERT IGNORE INTO customer (name, cpf, email, created_at, favorites_count, version) VALUES (?, ?, ?, ?, 0, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return findExisting("email", emails);
+    }
+
+    public Set<String> findExistingCpfs(Collection<String> cpfs) {
+        return findExisting("cpf", cpfs);
+    }
+
+    public void insertAll(List<NewCustomer> customers) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(customers.size());
+        for (NewCustomer customer : customers) {
+            rows.add(new Object[]{customer.name(), customer.cpf(), customer.email(), now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_CUSTOMER, rows);
+    }
+
+    /**
+     * Insere um cliente ignorando conflito de e-mail/CPF.
+     *
+     * @return {@code true} se o cliente foi inserido
+     */
+    public boolean insertIfAbsent(NewCustomer customer) {
+        return jdbcTemplate.update(INSERT_CUSTOMER_IF_ABSENT,
+                customer.name(), customer.cpf(), customer.email(), Timestamp.valueOf(LocalDateTime.now())) > 0;
+    }
+
+    private Set<String> findExisting(String column, Collection<String> values) {
+        if (values.isEmpty()) {
+            return Set.of();
+        }
+        String sql = "SELECT " + column + " FROM customer WHERE " + column + " IN (:values)";
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(sql, Map.of("values", values), String.class));
+    }
+
+    public record NewCustomer(String name, String cpf, String email) {
+    }
+}
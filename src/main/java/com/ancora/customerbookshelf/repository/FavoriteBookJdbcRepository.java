@@ -0,0 +1,91 @@
+package com.ancora.customerbookshelf.repository;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Escritas diretas na tabela de junção {@code customer_favorite_books}, sem carregar a coleção de favoritos do cliente.
+ */
+@Repository
+@Timed("jdbc.repository.invocations")
+@RequiredArgsConstructor
+public class FavoriteBookJdbcRepository {
+
+    /**
+     * Um favorito já existente vira um UPDATE sem efeito, que conta 0 linhas (com {@code useAffectedRows=true} na URL
+     * do MySQL); ao contrário de {@code INSERT IGNORE}, as demais violações, como a FK de um livro inexistente, continuam
+     * sendo erros.
+     */
+    private static final String ON_DUPLICATE_KEEP = " ON DUPLICATE KEY UPDATE customer_id = customer_id";
+
+    private static final String INSERT_FAVORITE_IF_ABSENT =
+            "INSERT INTO customer_favorite_books (customer_id, book_isbn) VALUES (?, ?)" + ON_DUPLICATE_KEEP;
+
+    private static final String INSERT_FAVORITES_IF_ABSENT =
+            "INSERT INTO customer_favorite_books (customer_id, book_isbn) VALUES ";
+
+    /**
+     * Linhas por statement no insert em lote: cada statement é um único INSERT com várias tuplas,
+     * cujo retorno é o número exato de linhas inseridas.
+     */
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String DELETE_FAVORITE =
+            "DELETE FROM customer_favorite_books WHERE customer_id = ? AND book_isbn = ?";
+
+    private static final String EXISTS_FAVORITE =
+            "SELECT EXISTS (SELECT 1 FROM customer_favorite_books WHERE customer_id = ? AND book_isbn = ?)";
+
+    private static final String FIND_FAVORITE_ISBNS =
+            "SELECT book_isbn FROM customer_favorite_books WHERE customer_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<String> findIsbns(Long customerId) {
+        return jdbcTemplate.queryForList(FIND_FAVORITE_ISBNS, String.class, customerId);
+    }
+
+    public boolean exists(Long customerId, String isbn) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_FAVORITE, Boolean.class, customerId, isbn));
+    }
+
+    /**
+     * @return {@code true} se o favorito foi inserido, {@code false} se já existia
+     */
+    public boolean insert(Long customerId, String isbn) {
+        return jdbcTemplate.update(INSERT_FAVORITE_IF_ABSENT, customerId, isbn) > 0;
+    }
+
+    /**
+     * @return {@code true} se o favorito existia e foi removido
+     */
+    public boolean delete(Long customerId, String isbn) {
+        return jdbcTemplate.update(DELETE_FAVORITE, customerId, isbn) > 0;
+    }
+
+    /**
+     * Insere os favoritos que ainda não existem, em statements de até {@value #ROWS_PER_STATEMENT} linhas.
+     *
+     * @return quantas linhas foram inseridas (as já existentes são ignoradas)
+     */
+    public int insertAllIfAbsent(Long customerId, List<String> isbns) {
+        int inserted = 0;
+        for (int from = 0; from < isbns.size(); from += ROWS_PER_STATEMENT) {
+            List<String> chunk = isbns.subList(from, Math.min(from + ROWS_PER_STATEMENT, isbns.size()));
+            StringJoiner values = new StringJoiner(", ", INSERT_FAVORITES_IF_ABSENT, ON_DUPLICATE_KEEP);
+            Object[] args = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                values.add("(?, ?)");
+                args[2 * i] = customerId;
+                args[2 * i + 1] = chunk.get(i);
+            }
+            inserted += jdbcTemplate.update(values.toString(), args);
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ancora.customerbookshelf.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Leitura dos favoritos para exportação com um cursor somente-leitura e somente-avanço: cada linha é
+ * entregue ao consumidor assim que chega do banco, sem montar entidades nem listas em memória.
+ * No MySQL, {@code fetchSize = Integer.MIN_VALUE} faz o driver transmitir o resultado linha a linha.
+ * <p>
+ * Uma exportação completa segura a conexão enquanto o cliente consome a resposta (até o timeout assíncrono), então as
+ * consultas usam um pool próprio e pequeno ({@code export.datasource.*}, que pode apontar para uma réplica) em vez do
+ * pool da aplicação. O {@code connection-init-sql} desse pool aumenta o {@code group_concat_max_len} da sessão, cujo
+ * padrão (1024 bytes) cortaria a lista de autores e assuntos.
+ */
+@Repository
+@Timed("jdbc.repository.invocations")
+public class FavoriteExportJdbcRepository implements AutoCloseable {
+
+    private static final String SEPARATOR = "\u001F";
+
+    private static final String SELECT_FAVORITES =
+            "SELECT cfb.customer_id, b.isbn, b.title, b.subtitle, b.publisher, b.year, b.format, b.page_count, b.retail_price, " +
+            "(SELECT GROUP_CONCAT(a.author SEPARATOR '" + SEPARATOR + "') FROM book_authors a WHERE a.book_isbn = b.isbn) AS authors, " +
+            "(SELECT GROUP_CONCAT(s.subject SEPARATOR '" + SEPARATOR + "') FROM book_subjects s WHERE s.book_isbn = b.isbn) AS subjects " +
+            "FROM customer_favorite_books cfb JOIN book b ON b.isbn = cfb.book_isbn ";
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public FavoriteExportJdbcRepository(DataSourceProperties properties,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${export.datasource.url}") String url,
+                                        @Value("${export.datasource.username}") String username,
+                                        @Value("${export.datasource.password}") String password,
+                                        @Value("${export.datasource.maximum-pool-size}") int maximumPoolSize,
+                                        @Value("${export.datasource.connection-timeout-ms}") long connectionTimeoutMs,
+                                        @Value("${export.datasource.connection-init-sql}") String connectionInitSql,
+                                        @Value("${export.jdbc-fetch-size}") int fetchSize) {
+        // O pool só abre conexões na primeira exportação e as fecha quando ficam ociosas.
+        this.dataSource = new HikariDataSource();
+        dataSource.setPoolName("ExportPool");
+        dataSource.setJdbcUrl(url);
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setMinimumIdle(0);
+        dataSource.setConnectionTimeout(connectionTimeoutMs);
+        dataSource.setReadOnly(true);
+        if (!connectionInitSql.isBlank()) {
+            dataSource.setConnectionInitSql(connectionInitSql);
+        }
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    public void streamByCustomer(Long customerId, Consumer<ExportRow> consumer) {
+        jdbcTemplate.query(SELECT_FAVORITES + "WHERE cfb.customer_id = ? ORDER BY cfb.book_isbn", toRows(consumer), customerId);
+    }
+
+    public void streamAll(Consumer<ExportRow> consumer) {
+        jdbcTemplate.query(SELECT_FAVORITES + "ORDER BY cfb.customer_id, cfb.book_isbn", toRows(consumer));
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+
+    private static RowCallbackHandler toRows(Consumer<ExportRow> consumer) {
+        return rs -> consumer.accept(new ExportRow(
+                rs.getLong("customer_id"),
+                rs.getString("isbn"),
+                rs.getString("title"),
+                rs.getString("subtitle"),
+                split(rs.getString("authors")),
+                rs.getString("publisher"),
+                nullableInt(rs, "year"),
+                rs.getString("format"),
+                nullableInt(rs, "page_count"),
+                split(rs.getString("subjects")),
+                nullableDouble(rs, "retail_price")));
+    }
+
+    private static List<String> split(String concatenated) {
+        return concatenated == null ? List.of() : List.of(concatenated.split(SEPARATOR));
+    }
+
+    private static Integer nullableInt(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Double nullableDouble(ResultSet rs, String column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    public record ExportRow(long customerId, String isbn, String title, String subtitle, List<String> authors,
+                            String publisher, Integer year, String format, Integer pageCount,
+                            List<String> subjects, Double retailPrice) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.ancora.customerbookshelf.repository;
+
+import com.ancora.customerbookshelf.model.Book;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carga da estante de um cliente para o índice de busca: livros, autores e assuntos em três consultas pela chave
+ * de {@code customer_favorite_books}, montando {@link Book}s soltos (não gerenciados pelo Hibernate).
+ */
+@Repository
+@Timed("jdbc.repository.invocations")
+@RequiredArgsConstructor
+public class FavoriteSearchJdbcRepository {
+
+    private static final String SELECT_BOOKS =
+            "SELECT b.isbn, b.title, b.subtitle, b.synopsis, b.publisher, b.year, b.format, b.page_count, b.retail_price " +
+            "FROM customer_favorite_books cfb JOIN book b ON b.isbn = cfb.book_isbn WHERE cfb.customer_id = ? ORDER BY b.isbn";
+
+    private static final String SELECT_AUTHORS =
+            "SELECT a.book_isbn, a.author FROM customer_favorite_books cfb JOIN book_authors a ON a.book_isbn = cfb.book_isbn " +
+            "WHERE cfb.customer_id = ? AND a.author IS NOT NULL";
+
+    private static final String SELECT_SUBJECTS =
+            "SELECT s.book_isbn, s.subject FROM customer_favorite_books cfb JOIN book_subjects s ON s.book_isbn = cfb.book_isbn " +
+            "WHERE cfb.customer_id = ? AND s.subject IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return os livros favoritos do cliente em ordem de ISBN, com autores e assuntos
+     */
+    public List<Book> findShelf(Long customerId) {
+        Map<String, Book> books = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_BOOKS, rs -> {
+            String isbn = rs.getString("isbn");
+            books.put(isbn, Book.builder()
+                    .isbn(isbn)
+                    .title(rs.getString("title"))
+                    .subtitle(rs.getString("subtitle"))
+                    .synopsis(rs.getString("synopsis"))
+                    .publisher(rs.getString("publisher"))
+                    .year(rs.getObject("year", Integer.class))
+                    .format(rs.getString("format"))
+                    .pageCount(rs.getObject("page_count", Integer.class))
+                    .retailPrice(rs.getObject("retail_price", Double.class))
+                    .authors(new ArrayList<>(2))
+                    .subjects(new ArrayList<>(2))
+                    .build());
+        }, customerId);
+        jdbcTemplate.query(SELECT_AUTHORS, rs -> {
+            Book book = books.get(rs.getString(1));
+            if (book != null) {
+                book.getAuthors().add(rs.getString(2));
+            }
+        }, customerId);
+        jdbcTemplate.query(SELECT_SUBJECTS, rs -> {
+            Book book = books.get(rs.getString(1));
+            if (book != null) {
+                book.getSubjects().add(rs.getString(2));
+            }
+        }, customerId);
+        return new ArrayList<>(books.values());
+    }
+}
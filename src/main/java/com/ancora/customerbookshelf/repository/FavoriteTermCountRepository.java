@@ -0,0 +1,16 @@
+package com.ancora.customerbookshelf.repository;
+
+import com.ancora.customerbookshelf.model.FavoriteTermCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FavoriteTermCountRepository extends JpaRepository<FavoriteTermCount, FavoriteTermCount.Key> {
+
+    List<FavoriteTermCount> findByCustomerId(Long customerId);
+
+    List<FavoriteTermCount> findByCustomerIdIn(Collection<Long> customerIds);
+}
@@ -0,0 +1,119 @@
+package com.ancora.customerbookshelf.repository;
+
+import com.ancora.customerbookshelf.model.FavoriteTermCount.TermType;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escritas atômicas nos contadores do resumo de favoritos ({@code customer_favorite_term} e {@code customer.favorites_count}).
+ * Todas as alterações são incrementos/decrementos feitos pelo banco, sem ler e regravar o valor em Java.
+ * Toda alteração do contador também incrementa {@code customer.version}, que invalida as ETags do cliente.
+ */
+@Repository
+@Timed("jdbc.repository.invocations")
+@RequiredArgsConstructor
+public class FavoritesSummaryJdbcRepository {
+
+    private static final String INCREMENT_TERM =
+            "INSERT INTO customer_favorite_term (customer_id, term_type, term, favorite_count) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE favorite_count = favorite_count + VALUES(favorite_count)";
+
+    private static final String DECREMENT_TERM =
+            "UPDATE customer_favorite_term SET favorite_count = favorite_count - ? " +
+            "WHERE customer_id = ? AND term_type = ? AND term = ?";
+
+    /**
+     * Só os termos decrementados: apagar todos os zerados do cliente travaria linhas que outra escrita pode estar usando.
+     */
+    private static final String DELETE_EMPTY_TERMS =
+            "DELETE FROM customer_favorite_term WHERE customer_id = :customerId AND term_type = :termType " +
+            "AND term IN (:terms) AND favorite_count <= 0";
+
+    private static final String LOCK_CUSTOMER = "SELECT id FROM customer WHERE id = ? FOR UPDATE";
+
+    private static final String ADJUST_FAVORITES_COUNT =
+            "UPDATE customer SET favorites_count = favorites_count + ?, version = version + 1 WHERE id = ?";
+
+    private static final String REBUILD_TERMS =
+            "INSERT INTO customer_favorite_term (customer_id, term_type, term, favorite_count) " +
+            "SELECT cfb.customer_id, ?, t.%2$s, COUNT(*) FROM customer_favorite_books cfb " +
+            "JOIN %1$s t ON t.book_isbn = cfb.book_isbn " +
+            "WHERE cfb.customer_id BETWEEN ? AND ? AND t.%2$s IS NOT NULL " +
+            "GROUP BY cfb.customer_id, t.%2$s";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Autores (ou assuntos) dos livros informados, um item por ocorrência.
+     */
+    public List<String> findTerms(TermType termType, Collection<String> isbns) {
+        if (isbns.isEmpty()) {
+            return List.of();
+        }
+        String sql = termType == TermType.AUTHOR
+                ? "SELECT author FROM book_authors WHERE book_isbn IN (:isbns) AND author IS NOT NULL"
+                : "SELECT subject FROM book_subjects WHERE book_isbn IN (:isbns) AND subject IS NOT NULL";
+        return namedParameterJdbcTemplate.queryForList(sql, Map.of("isbns", isbns), String.class);
+    }
+
+    public void incrementTerms(Long customerId, TermType termType, Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((term, delta) -> rows.add(new Object[]{customerId, termType.name(), term, delta}));
+        jdbcTemplate.batchUpdate(INCREMENT_TERM, rows);
+    }
+
+    public void decrementTerms(Long customerId, TermType termType, Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((term, delta) -> rows.add(new Object[]{delta, customerId, termType.name(), term}));
+        jdbcTemplate.batchUpdate(DECREMENT_TERM, rows);
+        namedParameterJdbcTemplate.update(DELETE_EMPTY_TERMS,
+                Map.of("customerId", customerId, "termType", termType.name(), "terms", deltas.keySet()));
+    }
+
+    public void lockCustomer(Long customerId) {
+        jdbcTemplate.queryForList(LOCK_CUSTOMER, Long.class, customerId);
+    }
+
+    public void adjustFavoritesCount(Long customerId, long delta) {
+        jdbcTemplate.update(ADJUST_FAVORITES_COUNT, delta, customerId);
+    }
+
+    /**
+     * Recalcula do zero os contadores dos clientes com id entre {@code fromId} e {@code toId}, a partir da tabela de favoritos.
+     */
+    public void rebuild(long fromId, long toId) {
+        jdbcTemplate.update("DELETE FROM customer_favorite_term WHERE customer_id BETWEEN ? AND ?", fromId, toId);
+        jdbcTemplate.update(REBUILD_TERMS.formatted("book_authors", "author"), TermType.AUTHOR.name(), fromId, toId);
+        jdbcTemplate.update(REBUILD_TERMS.formatted("book_subjects", "subject"), TermType.SUBJECT.name(), fromId, toId);
+        jdbcTemplate.update("UPDATE customer SET version = version + 1, favorites_count = " +
+                "(SELECT COUNT(*) FROM customer_favorite_books cfb WHERE cfb.customer_id = customer.id) " +
+                "WHERE id BETWEEN ? AND ?", fromId, toId);
+    }
+
+    /**
+     * Se há cliente com favoritos e contador zerado, o que só acontece em bases populadas antes dos contadores existirem.
+     */
+    public boolean hasUninitializedCounters() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM customer c " +
+                "JOIN customer_favorite_books cfb ON cfb.customer_id = c.id WHERE c.favorites_count = 0)", Boolean.class));
+    }
+
+    public void deleteByCustomerId(Long customerId) {
+        jdbcTemplate.update("DELETE FROM customer_favorite_term WHERE customer_id = ?", customerId);
+    }
+}
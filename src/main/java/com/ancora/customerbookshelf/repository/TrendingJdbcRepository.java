@@ -0,0 +1,53 @@
+package com.ancora.customerbookshelf.repository;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Escritas e leituras da tabela de rollup do ranking ({@code book_favorite_daily}). As escritas são incrementos
+ * feitos pelo banco, então os deltas de várias instâncias se somam sem ler e regravar o valor.
+ */
+@Repository
+@Timed("jdbc.repository.invocations")
+@RequiredArgsConstructor
+public class TrendingJdbcRepository {
+
+    private static final String INCREMENT =
+            "INSERT INTO book_favorite_daily (book_isbn, bucket_date, favorites) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE favorites = favorites + VALUES(favorites)";
+
+    private static final String SELECT_SINCE =
+            "SELECT book_isbn, bucket_date, favorites FROM book_favorite_daily WHERE bucket_date >= ?";
+
+    private static final String DELETE_BEFORE = "DELETE FROM book_favorite_daily WHERE bucket_date < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void increment(List<DailyCount> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach(delta -> rows.add(new Object[]{delta.isbn(), Date.valueOf(delta.day()), delta.favorites()}));
+        jdbcTemplate.batchUpdate(INCREMENT, rows);
+    }
+
+    public List<DailyCount> findSince(LocalDate from) {
+        return jdbcTemplate.query(SELECT_SINCE, (rs, rowNum) -> new DailyCount(
+                rs.getString(1), rs.getDate(2).toLocalDate(), rs.getLong(3)), Date.valueOf(from));
+    }
+
+    public int deleteBefore(LocalDate day) {
+        return jdbcTemplate.update(DELETE_BEFORE, Date.valueOf(day));
+    }
+
+    public record DailyCount(String isbn, LocalDate day, long favorites) {
+    }
+}
@@ -1,28 +1,57 @@
 package com.ancora.customerbookshelf.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Emite e verifica os JWTs da API. Chave e parser são criados uma única vez; cada token é verificado
+ * (assinatura e expiração) em uma só passada e, se válido, guardado em um cache limitado até expirar,
+ * para que as requisições seguintes com o mesmo token não refaçam o HMAC.
+ * A taxa de acerto do cache é publicada em {@code cache.*} com a tag {@code cache=jwt.verified-tokens}.
+ */
 @Component
-public class JwtTokenProvider {
+@Slf4j
+public class JwtTokenProvider implements MeterBinder {
 
-    @Value("${api.security.jwt.secret-key}")
-    private String secretKeyString;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long jwtExpirationInMs;
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
-    @Value("${api.security.jwt.expiration-ms}")
-    private long jwtExpirationInMs;
+    public JwtTokenProvider(@Value("${api.security.jwt.secret-key}") String secretKeyString,
+                            @Value("${api.security.jwt.expiration-ms}") long jwtExpirationInMs,
+                            @Value("${api.security.jwt.cache.maximum-size}") long cacheMaximumSize) {
+        this.signingKey = Keys.hmacShaKeyFor(secretKeyString.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.jwtExpirationInMs = jwtExpirationInMs;
+        this.verifiedTokens = cacheMaximumSize > 0
+                ? Caffeine.newBuilder().maximumSize(cacheMaximumSize).expireAfter(new UntilTokenExpiry()).recordStats().build()
+                : null;
+    }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKeyString.getBytes());
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (verifiedTokens != null) {
+            CaffeineCacheMetrics.monitor(registry, verifiedTokens, "jwt.verified-tokens");
+        }
     }
 
     public String generateToken(String clientId) {
@@ -33,27 +62,61 @@ public class JwtTokenProvider {
                 .setSubject(clientId)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    public String getClientIdFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * @return o client id do token, ou vazio se o token for inválido ou estiver expirado
+     */
+    public Optional<String> resolveClientId(String token) {
+        if (verifiedTokens != null) {
+            VerifiedToken cached = verifiedTokens.getIfPresent(token);
+            if (cached != null && cached.expiresAtMillis() > System.currentTimeMillis()) {
+                return Optional.of(cached.clientId());
+            }
+        }
 
-        return claims.getSubject();
+        VerifiedToken verified = verify(token);
+        if (verified == null) {
+            return Optional.empty();
+        }
+        if (verifiedTokens != null) {
+            verifiedTokens.put(token, verified);
+        }
+        return Optional.of(verified.clientId());
     }
 
-    public boolean validateToken(String authToken) {
+    private VerifiedToken verify(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(authToken);
-            return true;
-        } catch (Exception ex) {
-            // Em um app real, teríamos logs mais específicos para cada tipo de exceção (ExpiredJwtException, etc.)
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Date expiration = claims.getExpiration();
+            long expiresAt = expiration != null ? expiration.getTime() : System.currentTimeMillis() + jwtExpirationInMs;
+            return new VerifiedToken(claims.getSubject(), expiresAt);
+        } catch (JwtException | IllegalArgumentException ex) {
+            log.debug("Rejected JWT: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private record VerifiedToken(String clientId, long expiresAtMillis) {
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, verified.expiresAtMillis() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, verified, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
         }
-        return false;
     }
 }
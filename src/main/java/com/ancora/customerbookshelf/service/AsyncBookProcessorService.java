@@ -1,33 +1,102 @@
 package com.ancora.customerbookshelf.service;
 
+import com.ancora.customerbookshelf.exception.ExternalBookNotFoundException;
+import com.ancora.customerbookshelf.model.Book;
+import com.ancora.customerbookshelf.repository.BookRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Slf4j
 public class AsyncBookProcessorService {
 
-
     private final FavoriteBookService favoriteBookService;
+    private final BookCatalogService bookCatalogService;
+    private final BookRepository bookRepository;
+    private final TaskExecutor bookFetchExecutor;
 
-    public AsyncBookProcessorService(FavoriteBookService favoriteBookService) {
+    public AsyncBookProcessorService(FavoriteBookService favoriteBookService,
+                                     BookCatalogService bookCatalogService,
+                                     BookRepository bookRepository,
+                                     @Qualifier("bookFetchExecutor") TaskExecutor bookFetchExecutor) {
         this.favoriteBookService = favoriteBookService;
+        this.bookCatalogService = bookCatalogService;
+        this.bookRepository = bookRepository;
+        this.bookFetchExecutor = bookFetchExecutor;
     }
 
+    /**
+     * Processa o job em três etapas: descobre em duas consultas quais ISBNs já são favoritos e quais já
+     * estão no banco, busca os que faltam na BrasilAPI em paralelo (limitado pelo pool {@code bookFetchExecutor})
+     * e grava todos os favoritos novos em uma única transação com insert em lote.
+     */
     @Async
-    public void processBookAdditions(Long customerId, List<String> isbns) {
-        log.info("Starting bulk add process for customer {} with {} books.", customerId, isbns.size());
-        for (String isbn : isbns) {
-            try {
-                favoriteBookService.addBookToFavorites(customerId, isbn);
-                log.info("Successfully processed ISBN {} for customer {}", isbn, customerId);
-            } catch (Exception e) {
-                log.error("Failed to process ISBN {} for customer {}: {}", isbn, customerId, e.getMessage());
+    public void processBookAdditions(BulkAddJob job) {
+        Long customerId = job.getCustomerId();
+        log.info("Starting bulk add job {} for customer {} with {} books.", job.getId(), customerId, job.getIsbns().size());
+        job.markRunning();
+        try {
+            if (job.getIsbns().isEmpty()) {
+                job.complete();
+                return;
+            }
+
+            Set<String> alreadyFavorited = bookRepository.findFavoriteIsbnsByCustomerIdAndIsbnIn(customerId, job.getIsbns());
+            job.recordAll(alreadyFavorited, BulkAddJob.Outcome.ALREADY_FAVORITE);
+
+            List<String> candidates = job.getIsbns().stream().filter(isbn -> !alreadyFavorited.contains(isbn)).toList();
+            Set<String> stored = candidates.isEmpty() ? Set.of() : bookRepository.findExistingIsbns(candidates);
+
+            Map<String, String> resolved = new ConcurrentHashMap<>();
+            stored.forEach(isbn -> resolved.put(isbn, isbn));
+
+            List<CompletableFuture<Void>> fetches = new ArrayList<>();
+            for (String isbn : candidates) {
+                if (!stored.contains(isbn)) {
+                    fetches.add(CompletableFuture
+                            .supplyAsync(() -> bookCatalogService.findOrFetch(isbn), bookFetchExecutor)
+                            .handle((book, ex) -> {
+                                recordFetch(job, isbn, book, ex, resolved);
+                                return null;
+                            }));
+                }
             }
+            CompletableFuture.allOf(fetches.toArray(CompletableFuture[]::new)).join();
+
+            // Um favorito gravado por outra requisição depois da primeira consulta conta como já existente.
+            Set<String> added = Set.copyOf(favoriteBookService.addBooksToFavorites(customerId, resolved.values()));
+            resolved.forEach((isbn, storedIsbn) ->
+                    job.record(isbn, added.contains(storedIsbn) ? BulkAddJob.Outcome.ADDED : BulkAddJob.Outcome.ALREADY_FAVORITE, null));
+            job.complete();
+            log.info("Finished bulk add job {} for customer {}: {} added, {} already favorite, {} not found, {} failed.",
+                    job.getId(), customerId, job.count(BulkAddJob.Outcome.ADDED), job.count(BulkAddJob.Outcome.ALREADY_FAVORITE),
+                    job.count(BulkAddJob.Outcome.NOT_FOUND), job.count(BulkAddJob.Outcome.FAILED));
+        } catch (Exception e) {
+            log.error("Bulk add job {} for customer {} failed: {}", job.getId(), customerId, e.getMessage(), e);
+            job.fail(e.getMessage());
+        }
+    }
+
+    private void recordFetch(BulkAddJob job, String isbn, Book book, Throwable ex, Map<String, String> resolved) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause == null) {
+            resolved.put(isbn, book.getIsbn());
+        } else if (cause instanceof ExternalBookNotFoundException) {
+            job.record(isbn, BulkAddJob.Outcome.NOT_FOUND, cause.getMessage());
+        } else {
+            log.error("Failed to fetch ISBN {} for bulk add job {}: {}", isbn, job.getId(), cause.getMessage());
+            job.record(isbn, BulkAddJob.Outcome.FAILED, cause.getMessage());
         }
-        log.info("Finished bulk add process for customer {}.", customerId);
     }
 }
@@ -0,0 +1,78 @@
+package com.ancora.customerbookshelf.service;
+
+import com.ancora.customerbookshelf.client.BookMetadataCache;
+import com.ancora.customerbookshelf.dto.brasilapi.BookResponseDTO;
+import com.ancora.customerbookshelf.mapper.BookMapper;
+import com.ancora.customerbookshelf.model.Book;
+import com.ancora.customerbookshelf.repository.BookRepository;
+import com.ancora.customerbookshelf.util.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.time.LocalDateTime;
+
+@Service
+@Slf4j
+public class BookCatalogService implements MeterBinder {
+
+    private final BookRepository bookRepository;
+    private final BookMetadataCache bookMetadataCache;
+    private final TransactionTemplate requiresNewTransaction;
+    private final SingleFlight<String, Book> inFlightFetches = new SingleFlight<>();
+
+    public BookCatalogService(BookRepository bookRepository,
+                              BookMetadataCache bookMetadataCache,
+                              PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.bookMetadataCache = bookMetadataCache;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Retorna o livro do banco ou o busca na BrasilAPI e persiste.
+     * Chamadas concorrentes para o mesmo ISBN compartilham uma única busca e um único insert. A busca externa
+     * acontece fora de transação (sem segurar conexão do pool) e o insert tem transação própria: quando os
+     * demais chamadores recebem o livro ele já está commitado. Por isso não pode ser chamado dentro de uma transação:
+     * a conexão dela ficaria presa durante a chamada externa, somada à do insert.
+     */
+    public Book findOrFetch(String isbn) {
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+                "findOrFetch must not be called inside a transaction");
+        return bookRepository.findById(isbn).orElseGet(() -> fetchOnce(isbn));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("brasilapi.fetch.coalesced", inFlightFetches, SingleFlight::getCoalescedCalls)
+                .description("Callers that joined an in-flight BrasilAPI fetch of the same ISBN instead of starting their own")
+                .register(registry);
+    }
+
+    private Book fetchOnce(String isbn) {
+        SingleFlight.Result<Book> result = inFlightFetches.execute(isbn,
+                () -> bookRepository.findById(isbn).orElseGet(() -> fetchAndSaveBook(isbn)));
+
+        if (result.coalesced()) {
+            log.debug("Joined in-flight fetch for ISBN {}", isbn);
+        } else if (result.followers() > 0) {
+            log.info("Fetched ISBN {} once on behalf of {} concurrent callers", isbn, result.followers() + 1);
+        }
+        return result.value();
+    }
+
+    private Book fetchAndSaveBook(String isbn) {
+        BookResponseDTO responseDTO = bookMetadataCache.lookup(isbn);
+        Book book = BookMapper.toEntity(responseDTO);
+        book.setLastFetchedAt(LocalDateTime.now());
+        return requiresNewTransaction.execute(status -> bookRepository.save(book));
+    }
+}
@@ -0,0 +1,140 @@
+package com.ancora.customerbookshelf.service;
+
+import com.ancora.customerbookshelf.client.BookMetadataCache;
+import com.ancora.customerbookshelf.client.BrasilApiClient;
+import com.ancora.customerbookshelf.dto.brasilapi.BookResponseDTO;
+import com.ancora.customerbookshelf.exception.ExternalBookNotFoundException;
+import com.ancora.customerbookshelf.exception.ExternalServiceUnavailableException;
+import com.ancora.customerbookshelf.repository.BookRefreshJdbcRepository;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Refresh-ahead dos metadados de livros (preço, capa, sinopse...): a cada execução agendada, busca de novo na
+ * BrasilAPI os livros cujo {@code last_fetched_at} passou de {@code book-refresh.max-age-ms}, os mais favoritados
+ * primeiro, e grava com updates em lote só os que mudaram. Roda na thread do agendador, nunca no caminho das requisições.
+ * As chamadas passam pelo rate limiter {@code brasilApiRefresh} e pelas proteções normais do {@link BrasilApiClient};
+ * com a API indisponível a execução termina e os livros restantes ficam para a próxima.
+ */
+@Component
+@ConditionalOnProperty(name = "book-refresh.enabled", havingValue = "true")
+@Slf4j
+public class BookRefreshWorker {
+
+    public static final String RATE_LIMITER = "brasilApiRefresh";
+
+    private final BookRefreshJdbcRepository bookRefreshJdbcRepository;
+    private final BrasilApiClient brasilApiClient;
+    private final BookMetadataCache bookMetadataCache;
+    private final TransactionTemplate transactionTemplate;
+    private final RateLimiter rateLimiter;
+    private final Duration maxAge;
+    private final int booksPerRun;
+    private final int writeBatchSize;
+    private final Counter updated;
+    private final Counter unchanged;
+    private final Counter notFound;
+    private final Counter failed;
+
+    public BookRefreshWorker(BookRefreshJdbcRepository bookRefreshJdbcRepository,
+                             BrasilApiClient brasilApiClient,
+                             BookMetadataCache bookMetadataCache,
+                             PlatformTransactionManager transactionManager,
+                             RateLimiterRegistry rateLimiterRegistry,
+                             MeterRegistry meterRegistry,
+                             @Value("${book-refresh.max-age-ms}") long maxAgeMs,
+                             @Value("${book-refresh.books-per-run}") int booksPerRun,
+                             @Value("${book-refresh.write-batch-size}") int writeBatchSize) {
+        this.bookRefreshJdbcRepository = bookRefreshJdbcRepository;
+        this.brasilApiClient = brasilApiClient;
+        this.bookMetadataCache = bookMetadataCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rateLimiter = rateLimiterRegistry.rateLimiter(RATE_LIMITER);
+        this.maxAge = Duration.ofMillis(maxAgeMs);
+        this.booksPerRun = booksPerRun;
+        this.writeBatchSize = writeBatchSize;
+        this.updated = refreshCounter(meterRegistry, "updated");
+        this.unchanged = refreshCounter(meterRegistry, "unchanged");
+        this.notFound = refreshCounter(meterRegistry, "not_found");
+        this.failed = refreshCounter(meterRegistry, "failed");
+    }
+
+    @Scheduled(initialDelayString = "${book-refresh.initial-delay-ms}", fixedDelayString = "${book-refresh.interval-ms}")
+    public void refreshStaleBooks() {
+        List<String> isbns = bookRefreshJdbcRepository.findStaleIsbns(LocalDateTime.now().minus(maxAge), booksPerRun);
+        if (isbns.isEmpty()) {
+            return;
+        }
+        log.info("Refreshing metadata of {} stale books.", isbns.size());
+
+        List<BookResponseDTO> fetched = new ArrayList<>(writeBatchSize);
+        List<String> missing = new ArrayList<>();
+        int processed = 0;
+        for (String isbn : isbns) {
+            if (!rateLimiter.acquirePermission()) {
+                log.warn("Book refresh rate limit wait timed out, stopping after {} of {} books.", processed, isbns.size());
+                break;
+            }
+            try {
+                BookResponseDTO book = brasilApiClient.fetchBookFromBrasilApi(isbn);
+                if (book != null) {
+                    book.setIsbn(isbn);
+                    fetched.add(book);
+                } else {
+                    // Resposta sem corpo: tratada como não encontrado, senão o livro volta ao topo da fila toda execução.
+                    missing.add(isbn);
+                }
+            } catch (ExternalBookNotFoundException ex) {
+                missing.add(isbn);
+            } catch (ExternalServiceUnavailableException ex) {
+                failed.increment();
+                log.warn("Book provider unavailable, stopping refresh after {} of {} books: {}", processed, isbns.size(), ex.getMessage());
+                break;
+            }
+            processed++;
+            if (fetched.size() + missing.size() >= writeBatchSize) {
+                flush(fetched, missing);
+            }
+        }
+        flush(fetched, missing);
+        log.info("Finished refreshing book metadata: {} of {} books processed.", processed, isbns.size());
+    }
+
+    private void flush(List<BookResponseDTO> fetched, List<String> missing) {
+        if (fetched.isEmpty() && missing.isEmpty()) {
+            return;
+        }
+        LocalDateTime fetchedAt = LocalDateTime.now();
+        List<String> changed = transactionTemplate.execute(status -> {
+            bookRefreshJdbcRepository.touch(missing, fetchedAt);
+            return bookRefreshJdbcRepository.updateMetadata(fetched, fetchedAt);
+        });
+        fetched.forEach(bookMetadataCache::put);
+        updated.increment(changed.size());
+        unchanged.increment(fetched.size() - changed.size());
+        notFound.increment(missing.size());
+        fetched.clear();
+        missing.clear();
+    }
+
+    private static Counter refreshCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("book.refresh")
+                .description("Books processed by the metadata refresh-ahead worker")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,74 @@
+package com.ancora.customerbookshelf.service;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estado de um job de adição em massa. É atualizado pela thread do {@link AsyncBookProcessorService}
+ * e lido pelo endpoint de status, por isso todos os campos mutáveis são thread-safe.
+ */
+@Getter
+public class BulkAddJob {
+
+    public enum Status {PENDING, RUNNING, COMPLETED, FAILED}
+
+    public enum Outcome {PENDING, ADDED, ALREADY_FAVORITE, NOT_FOUND, FAILED}
+
+    public record ItemResult(Outcome outcome, String message) {
+    }
+
+    private static final ItemResult PENDING_RESULT = new ItemResult(Outcome.PENDING, null);
+
+    private final String id = UUID.randomUUID().toString();
+    private final Long customerId;
+    private final List<String> isbns;
+    private final Instant createdAt = Instant.now();
+    private final Map<String, ItemResult> results = new ConcurrentHashMap<>();
+    private volatile Status status = Status.PENDING;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public BulkAddJob(Long customerId, List<String> isbns) {
+        this.customerId = customerId;
+        this.isbns = List.copyOf(isbns);
+        this.isbns.forEach(isbn -> results.put(isbn, PENDING_RESULT));
+    }
+
+    public ItemResult getResult(String isbn) {
+        return results.get(isbn);
+    }
+
+    public void record(String isbn, Outcome outcome, String message) {
+        results.put(isbn, new ItemResult(outcome, message));
+    }
+
+    public void recordAll(Collection<String> isbns, Outcome outcome) {
+        isbns.forEach(isbn -> record(isbn, outcome, null));
+    }
+
+    public void markRunning() {
+        status = Status.RUNNING;
+    }
+
+    public void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String message) {
+        results.replaceAll((isbn, result) -> result.outcome() == Outcome.PENDING ? new ItemResult(Outcome.FAILED, message) : result);
+        error = message;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    public long count(Outcome outcome) {
+        return results.values().stream().filter(result -> result.outcome() == outcome).count();
+    }
+}
@@ -0,0 +1,39 @@
+package com.ancora.customerbookshelf.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Guarda em memória os jobs de adição em massa para consulta de status.
+ * Jobs expiram após o período de retenção sem consultas, e o total guardado é limitado.
+ */
+@Component
+public class BulkAddJobRegistry {
+
+    private final Cache<String, BulkAddJob> jobs;
+
+    public BulkAddJobRegistry(@Value("${bulk-add.jobs.maximum-size}") long maximumSize,
+                              @Value("${bulk-add.jobs.retention-ms}") long retentionMs) {
+        this.jobs = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(Duration.ofMillis(retentionMs))
+                .build();
+    }
+
+    public BulkAddJob create(Long customerId, List<String> isbns) {
+        BulkAddJob job = new BulkAddJob(customerId, isbns);
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    public Optional<BulkAddJob> find(Long customerId, String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId))
+                .filter(job -> job.getCustomerId().equals(customerId));
+    }
+}
@@ -0,0 +1,47 @@
+package com.ancora.customerbookshelf.service;
+
+import com.ancora.customerbookshelf.exception.ResourceNotFoundException;
+import com.ancora.customerbookshelf.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkAddService {
+
+    private final CustomerRepository customerRepository;
+    private final BulkAddJobRegistry bulkAddJobRegistry;
+    private final AsyncBookProcessorService asyncBookProcessorService;
+
+    public BulkAddJob submit(Long customerId, List<String> isbns) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer not found with id: " + customerId);
+        }
+
+        Set<String> uniqueIsbns = new LinkedHashSet<>();
+        if (isbns != null) {
+            isbns.stream()
+                    .filter(StringUtils::hasText)
+                    .map(String::trim)
+                    .forEach(uniqueIsbns::add);
+        }
+
+        BulkAddJob job = bulkAddJobRegistry.create(customerId, new ArrayList<>(uniqueIsbns));
+        log.info("Created bulk add job {} for customer {} with {} unique books", job.getId(), customerId, uniqueIsbns.size());
+        asyncBookProcessorService.processBookAdditions(job);
+        return job;
+    }
+
+    public BulkAddJob getJob(Long customerId, String jobId) {
+        return bulkAddJobRegistry.find(customerId, jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bulk add job " + jobId + " not found for customer " + customerId));
+    }
+}
@@ -0,0 +1,578 @@
+package com.ancora.customerbookshelf.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice item a item de "quem favoritou este também favoritou": para cada livro, os livros que mais aparecem
+ * junto com ele nas estantes, com quantos clientes têm os dois. ISBNs viram ids {@code int} e cada livro guarda no
+ * máximo {@code neighborsPerBook} vizinhos em dois {@code int[]} (id e contagem), sem objetos por par.
+ * <p>
+ * A montagem é paralela por livro: cada thread conta os vizinhos de um bloco de livros em um {@code int[]} denso
+ * e guarda só os mais frequentes. Depois disso o índice é atualizado a cada favorito adicionado ou removido
+ * ({@link #apply}); quando a lista de um livro está cheia, um vizinho novo substitui o de menor contagem e herda
+ * essa contagem mais um (Space-Saving), o que preserva os vizinhos frequentes com memória fixa. As contagens são
+ * aproximadas entre duas montagens.
+ * <p>
+ * Estantes com mais de {@code maxShelfSize} livros não geram pares: elas custam o quadrado do tamanho e
+ * quase não dizem nada sobre afinidade entre livros. Uma estante que passa do limite tira todos os seus pares do
+ * índice, e uma que volta a ele os devolve, então as atualizações seguem o mesmo critério da montagem.
+ */
+public final class CoFavoriteIndex {
+
+    private static final int BOOKS_PER_TASK = 256;
+
+    private final int neighborsPerBook;
+    private final int maxShelfSize;
+    private final Map<String, Integer> ids;
+    private final List<String> isbns;
+    private final List<Neighbors> neighbors;
+    private final Map<Long, IntList> shelves;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private CoFavoriteIndex(Builder builder, List<Neighbors> neighbors) {
+        this.neighborsPerBook = builder.neighborsPerBook;
+        this.maxShelfSize = builder.maxShelfSize;
+        this.ids = builder.ids;
+        this.isbns = builder.isbns;
+        this.shelves = builder.shelves;
+        this.neighbors = neighbors;
+    }
+
+    public static Builder builder(int neighborsPerBook, int maxShelfSize) {
+        return new Builder(neighborsPerBook, maxShelfSize);
+    }
+
+    /**
+     * Livros mais favoritados junto com o informado, do mais para o menos frequente.
+     */
+    public List<Recommendation> similar(String isbn, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer book = ids.get(isbn);
+            if (book == null) {
+                return List.of();
+            }
+            Neighbors list = neighbors.get(book);
+            return top(list.books, list.counts, list.size, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Soma os vizinhos de todos os livros da estante do cliente, sem os que ele já favoritou.
+     */
+    public List<Recommendation> forCustomer(Long customerId, int limit) {
+        lock.readLock().lock();
+        try {
+            IntList shelf = shelves.get(customerId);
+            if (shelf == null) {
+                return List.of();
+            }
+            IntCounts owned = new IntCounts(shelf.size);
+            for (int i = 0; i < shelf.size; i++) {
+                owned.add(shelf.items[i], 1);
+            }
+            IntCounts candidates = new IntCounts(Math.min(shelf.size, maxShelfSize) * 8);
+            for (int i = 0; i < shelf.size && i < maxShelfSize; i++) {
+                Neighbors list = neighbors.get(shelf.items[i]);
+                for (int n = 0; n < list.size; n++) {
+                    if (!owned.contains(list.books[n])) {
+                        candidates.add(list.books[n], list.counts[n]);
+                    }
+                }
+            }
+            return top(candidates.keys, candidates.values, candidates.keys.length, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Aplica um favorito adicionado ou removido. É idempotente por estante: adicionar um livro que já está na
+     * estante (ou remover um que não está) não muda nada, então reaplicar eventos já refletidos no índice é seguro.
+     */
+    public void apply(FavoriteChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (String isbn : event.isbns()) {
+                if (event.added()) {
+                    add(event.customerId(), isbn);
+                } else {
+                    remove(event.customerId(), isbn);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int books() {
+        lock.readLock().lock();
+        try {
+            return isbns.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long pairs() {
+        lock.readLock().lock();
+        try {
+            long pairs = 0;
+            for (Neighbors list : neighbors) {
+                pairs += list.size;
+            }
+            return pairs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Long customerId, String isbn) {
+        int book = intern(isbn);
+        IntList shelf = shelves.computeIfAbsent(customerId, ignored -> new IntList(4));
+        if (shelf.indexOf(book) >= 0) {
+            return;
+        }
+        if (countsPairs(shelf.size + 1, maxShelfSize)) {
+            for (int i = 0; i < shelf.size; i++) {
+                int other = shelf.items[i];
+                neighbors.get(book).increment(other, neighborsPerBook);
+                neighbors.get(other).increment(book, neighborsPerBook);
+            }
+        } else if (countsPairs(shelf.size, maxShelfSize)) {
+            // A estante passou do limite: sai do índice inteira, como na montagem.
+            forEachPair(shelf, (a, b) -> neighbors.get(a).decrement(b));
+        }
+        shelf.add(book);
+    }
+
+    private void remove(Long customerId, String isbn) {
+        Integer book = ids.get(isbn);
+        IntList shelf = shelves.get(customerId);
+        if (book == null || shelf == null || !shelf.remove(book)) {
+            return;
+        }
+        if (countsPairs(shelf.size + 1, maxShelfSize)) {
+            for (int i = 0; i < shelf.size; i++) {
+                int other = shelf.items[i];
+                neighbors.get(book).decrement(other);
+                neighbors.get(other).decrement(book);
+            }
+        } else if (countsPairs(shelf.size, maxShelfSize)) {
+            // A estante voltou ao limite: os pares dos livros que sobraram entram no índice.
+            forEachPair(shelf, (a, b) -> neighbors.get(a).increment(b, neighborsPerBook));
+        }
+        if (shelf.size == 0) {
+            shelves.remove(customerId);
+        }
+    }
+
+    /**
+     * Critério único, na montagem e nas atualizações: só estantes de até {@code maxShelfSize} livros geram pares.
+     */
+    private static boolean countsPairs(int shelfSize, int maxShelfSize) {
+        return shelfSize <= maxShelfSize;
+    }
+
+    /**
+     * Chama {@code action} para cada par ordenado de livros distintos da estante, nos dois sentidos.
+     */
+    private static void forEachPair(IntList shelf, IntBinaryConsumer action) {
+        for (int i = 0; i < shelf.size; i++) {
+            for (int j = 0; j < shelf.size; j++) {
+                if (i != j) {
+                    action.accept(shelf.items[i], shelf.items[j]);
+                }
+            }
+        }
+    }
+
+    private int intern(String isbn) {
+        Integer id = ids.get(isbn);
+        if (id != null) {
+            return id;
+        }
+        int book = isbns.size();
+        ids.put(isbn, book);
+        isbns.add(isbn);
+        neighbors.add(new Neighbors(0));
+        return book;
+    }
+
+    /**
+     * Os {@code limit} maiores por contagem (empates pelo ISBN), com um heap limitado em vez de ordenar todos.
+     * Posições com contagem zero ou id {@link IntCounts#EMPTY} são ignoradas.
+     */
+    private List<Recommendation> top(int[] books, int[] counts, int size, int limit) {
+        // Ordem do pior para o melhor: o topo do heap é o primeiro a sair.
+        Comparator<Integer> worstFirst = (a, b) -> counts[a] != counts[b]
+                ? Integer.compare(counts[a], counts[b]) : isbns.get(books[b]).compareTo(isbns.get(books[a]));
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.max(1, limit), worstFirst);
+        for (int i = 0; i < size && limit > 0; i++) {
+            if (books[i] == IntCounts.EMPTY || counts[i] <= 0) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(i);
+            } else if (counts[i] >= counts[best.peek()] && worstFirst.compare(i, best.peek()) > 0) {
+                best.poll();
+                best.add(i);
+            }
+        }
+        Recommendation[] result = new Recommendation[best.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            int position = best.poll();
+            result[i] = new Recommendation(isbns.get(books[position]), counts[position]);
+        }
+        return List.of(result);
+    }
+
+    /**
+     * @param score quantos clientes favoritaram o livro junto com o de referência (somado sobre a estante, na
+     *              recomendação por cliente)
+     */
+    public record Recommendation(String isbn, int score) {
+    }
+
+    /**
+     * Carga das estantes ({@link #add} por favorito, em qualquer ordem) seguida da montagem paralela.
+     */
+    public static final class Builder {
+
+        private final int neighborsPerBook;
+        private final int maxShelfSize;
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> isbns = new ArrayList<>();
+        private final Map<Long, IntList> shelves = new HashMap<>();
+
+        private Builder(int neighborsPerBook, int maxShelfSize) {
+            this.neighborsPerBook = neighborsPerBook;
+            this.maxShelfSize = maxShelfSize;
+        }
+
+        public Builder add(long customerId, String isbn) {
+            Integer book = ids.get(isbn);
+            if (book == null) {
+                book = isbns.size();
+                ids.put(isbn, book);
+                isbns.add(isbn);
+            }
+            shelves.computeIfAbsent(customerId, ignored -> new IntList(4)).add(book);
+            return this;
+        }
+
+        public CoFavoriteIndex build(int parallelism) {
+            int bookCount = isbns.size();
+            List<int[]> pairShelves = new ArrayList<>();
+            for (IntList shelf : shelves.values()) {
+                if (shelf.size > 1 && countsPairs(shelf.size, maxShelfSize)) {
+                    pairShelves.add(shelf.toArray());
+                }
+            }
+            int[][] shelvesByBook = shelvesByBook(pairShelves, bookCount);
+
+            Neighbors[] lists = new Neighbors[bookCount];
+            AtomicInteger nextBook = new AtomicInteger();
+            Runnable worker = () -> {
+                int[] counts = new int[bookCount];
+                IntList touched = new IntList(1024);
+                for (int from = nextBook.getAndAdd(BOOKS_PER_TASK); from < bookCount; from = nextBook.getAndAdd(BOOKS_PER_TASK)) {
+                    for (int book = from; book < Math.min(from + BOOKS_PER_TASK, bookCount); book++) {
+                        for (int shelf : shelvesByBook[book]) {
+                            for (int other : pairShelves.get(shelf)) {
+                                if (other != book && counts[other]++ == 0) {
+                                    touched.add(other);
+                                }
+                            }
+                        }
+                        lists[book] = Neighbors.mostFrequent(touched, counts, neighborsPerBook);
+                        for (int i = 0; i < touched.size; i++) {
+                            counts[touched.items[i]] = 0;
+                        }
+                        touched.size = 0;
+                    }
+                }
+            };
+            runInParallel(worker, Math.max(1, parallelism));
+            return new CoFavoriteIndex(this, new ArrayList<>(Arrays.asList(lists)));
+        }
+
+        private static int[][] shelvesByBook(List<int[]> shelves, int bookCount) {
+            int[] sizes = new int[bookCount];
+            for (int[] shelf : shelves) {
+                for (int book : shelf) {
+                    sizes[book]++;
+                }
+            }
+            int[][] byBook = new int[bookCount][];
+            for (int book = 0; book < bookCount; book++) {
+                byBook[book] = new int[sizes[book]];
+            }
+            Arrays.fill(sizes, 0);
+            for (int shelf = 0; shelf < shelves.size(); shelf++) {
+                for (int book : shelves.get(shelf)) {
+                    byBook[book][sizes[book]++] = shelf;
+                }
+            }
+            return byBook;
+        }
+
+        private static void runInParallel(Runnable worker, int parallelism) {
+            try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+                List<Future<?>> futures = new ArrayList<>(parallelism);
+                for (int i = 0; i < parallelism; i++) {
+                    futures.add(executor.submit(worker));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Co-favorite index build interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Co-favorite index build failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Vizinhos de um livro: até {@code capacity} pares (id, contagem) em arrays paralelos, sem ordem.
+     */
+    private static final class Neighbors {
+
+        private int[] books;
+        private int[] counts;
+        private int size;
+
+        Neighbors(int capacity) {
+            this.books = new int[capacity];
+            this.counts = new int[capacity];
+        }
+
+        static Neighbors mostFrequent(IntList candidates, int[] counts, int capacity) {
+            // Heap com os capacity mais frequentes (o menor no topo).
+            int[] heap = new int[Math.min(capacity, candidates.size)];
+            int size = 0;
+            for (int i = 0; i < candidates.size; i++) {
+                int book = candidates.items[i];
+                if (size < heap.length) {
+                    heap[size] = book;
+                    siftUp(heap, size++, counts);
+                } else if (counts[book] > counts[heap[0]]) {
+                    heap[0] = book;
+                    siftDown(heap, size, counts);
+                }
+            }
+            Neighbors neighbors = new Neighbors(size);
+            for (int i = 0; i < size; i++) {
+                neighbors.books[i] = heap[i];
+                neighbors.counts[i] = counts[heap[i]];
+            }
+            neighbors.size = size;
+            return neighbors;
+        }
+
+        void increment(int book, int capacity) {
+            for (int i = 0; i < size; i++) {
+                if (books[i] == book) {
+                    counts[i]++;
+                    return;
+                }
+            }
+            if (size < capacity) {
+                if (size == books.length) {
+                    int grown = Math.min(capacity, Math.max(4, size * 2));
+                    books = Arrays.copyOf(books, grown);
+                    counts = Arrays.copyOf(counts, grown);
+                }
+                books[size] = book;
+                counts[size++] = 1;
+                return;
+            }
+            int min = 0;
+            for (int i = 1; i < size; i++) {
+                if (counts[i] < counts[min]) {
+                    min = i;
+                }
+            }
+            books[min] = book;
+            counts[min]++;
+        }
+
+        void decrement(int book) {
+            for (int i = 0; i < size; i++) {
+                if (books[i] == book) {
+                    if (--counts[i] == 0) {
+                        size--;
+                        books[i] = books[size];
+                        counts[i] = counts[size];
+                    }
+                    return;
+                }
+            }
+        }
+
+        private static void siftUp(int[] heap, int index, int[] counts) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (counts[heap[parent]] <= counts[heap[index]]) {
+                    return;
+                }
+                swap(heap, parent, index);
+                index = parent;
+            }
+        }
+
+        private static void siftDown(int[] heap, int size, int[] counts) {
+            int index = 0;
+            while (true) {
+                int smallest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && counts[heap[left]] < counts[heap[smallest]]) {
+                    smallest = left;
+                }
+                if (right < size && counts[heap[right]] < counts[heap[smallest]]) {
+                    smallest = right;
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(heap, index, smallest);
+                index = smallest;
+            }
+        }
+
+        private static void swap(int[] heap, int a, int b) {
+            int tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+
+    /**
+     * Mapa {@code int -> int} de endereçamento aberto (sondagem linear), usado para somar candidatos sem boxing.
+     */
+    private static final class IntCounts {
+
+        static final int EMPTY = -1;
+
+        private int[] keys;
+        private int[] values;
+        private int size;
+
+        IntCounts(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(8, expected * 2) - 1) << 1;
+            this.keys = new int[capacity];
+            this.values = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        void add(int key, int delta) {
+            if (2 * (size + 1) > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                size++;
+            }
+            values[slot] += delta;
+        }
+
+        boolean contains(int key) {
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        private void resize() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    add(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IntBinaryConsumer {
+        void accept(int a, int b);
+    }
+
+    private static final class IntList {
+
+        private int[] items;
+        private int size;
+
+        IntList(int capacity) {
+            this.items = new int[capacity];
+        }
+
+        void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, Math.max(4, size * 2));
+            }
+            items[size++] = value;
+        }
+
+        int indexOf(int value) {
+            for (int i = 0; i < size; i++) {
+                if (items[i] == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        boolean remove(int value) {
+            int index = indexOf(value);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(items, index + 1, items, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(items, size);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.ancora.customerbookshelf.service;
+
+import com.ancora.customerbookshelf.exception.ResourceNotFoundException;
+import com.ancora.customerbookshelf.repository.CustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * GET condicional dos recursos de um cliente. A ETag (forte) vem de {@code customer.version}, incrementada no banco
+ * a cada alteração do perfil ou dos favoritos, e dos parâmetros da requisição ({@code top}, página, cursor...).
+ * Só a versão é consultada antes de comparar com o {@code If-None-Match}: quando confere, a resposta é {@code 304}
+ * sem carregar favoritos, livros nem o resumo. A versão e o corpo são lidos na mesma transação, então a ETag
+ * nunca descreve um corpo mais antigo que ela.
+ */
+@Service
+public class ConditionalGetService {
+
+    public static final String CUSTOMER = "customer";
+    public static final String FAVORITES = "favorites";
+
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<String, Outcomes> outcomes;
+
+    public ConditionalGetService(CustomerRepository customerRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.customerRepository = customerRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.outcomes = Map.of(
+                CUSTOMER, Outcomes.register(meterRegistry, CUSTOMER),
+                FAVORITES, Outcomes.register(meterRegistry, FAVORITES));
+    }
+
+    /**
+     * @param resource {@link #CUSTOMER} ou {@link #FAVORITES}; entra na ETag e na tag da métrica
+     * @param body     carrega a representação, chamado só quando o cliente não tem a versão atual
+     */
+    public <T> ResponseEntity<T> get(Long customerId, String resource, WebRequest request, Supplier<T> body) {
+        return readOnlyTransaction.execute(status -> {
+            long version = customerRepository.findVersionById(customerId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + customerId));
+            String eTag = eTag(customerId, version, resource, request);
+            // Sem isso o Spring Security responderia com no-store e os clientes não guardariam a ETag.
+            CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+
+            Outcomes resourceOutcomes = outcomes.get(resource);
+            if (request.checkNotModified(eTag)) {
+                resourceOutcomes.notModified().increment();
+                // checkNotModified já escreveu a ETag na resposta.
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).<T>build();
+            }
+            resourceOutcomes.modified().increment();
+            return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(body.get());
+        });
+    }
+
+    private static String eTag(Long customerId, long version, String resource, WebRequest request) {
+        StringBuilder variant = new StringBuilder(resource);
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) ->
+                variant.append('&').append(name).append('=').append(String.join(",", values)));
+        return "\"" + customerId + "-" + version + "-" + Integer.toHexString(variant.toString().hashCode()) + "\"";
+    }
+
+    private record Outcomes(Counter notModified, Counter modified) {
+
+        static Outcomes register(MeterRegistry registry, String resource) {
+            Outcomes outcomes = new Outcomes(counter(registry, resource, "not_modified"), counter(registry, resource, "modified"));
+            Gauge.builder("http.conditional.not-modified.ratio", outcomes, Outcomes::notModifiedRatio)
+                    .description("Share of GETs on ETag-enabled resources answered with 304 since startup")
+                    .tag("resource", resource)
+                    .register(registry);
+            return outcomes;
+        }
+
+        private static Counter counter(MeterRegistry registry, String resource, String result) {
+            return Counter.builder("http.conditional.requests")
+                    .description("GETs on ETag-enabled resources, by outcome")
+                    .tag("resource", resource)
+                    .tag("result", result)
+                    .register(registry);
+        }
+
+        private double notModifiedRatio() {
+            double total = notModified.count() + modified.count();
+            return total == 0 ? 0.0 : notModified.count() / total;
+        }
+    }
+}
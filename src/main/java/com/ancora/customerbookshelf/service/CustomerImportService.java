@@ -0,0 +1,314 @@
+package com.ancora.customerbookshelf.service;
+
+import com.ancora.customerbookshelf.dto.CustomerImportResultDTO;
+import com.ancora.customerbookshelf.dto.CustomerImportResultDTO.Rejection;
+import com.ancora.customerbookshelf.dto.CustomerImportRowDTO;
+import com.ancora.customerbookshelf.exception.InvalidRequestException;
+import com.ancora.customerbookshelf.repository.CustomerImportJdbcRepository;
+import com.ancora.customerbookshelf.repository.CustomerImportJdbcRepository.NewCustomer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em massa de clientes a partir de CSV ({@code name,email,cpf} com cabeçalho) ou NDJSON.
+ * O arquivo é lido em streaming e processado em lotes: cada lote é validado, checado contra e-mails/CPFs
+ * já cadastrados com uma consulta por coluna e inserido com JDBC batch em uma transação própria.
+ * Linhas inválidas ou em conflito são recusadas sem interromper a importação.
+ */
+@Service
+@Slf4j
+public class CustomerImportService {
+
+    private final CustomerImportJdbcRepository customerImportJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxReportedRejections;
+
+    public CustomerImportService(CustomerImportJdbcRepository customerImportJdbcRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 @Value("${customer-import.batch-size}") int batchSize,
+                                 @Value("${customer-import.max-reported-rejections}") int maxReportedRejections) {
+        this.customerImportJdbcRepository = customerImportJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxReportedRejections = maxReportedRejections;
+    }
+
+    public CustomerImportResultDTO importCustomers(InputStream input, DataFormat format) throws IOException {
+        Report report = new Report(maxReportedRejections);
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            RowReader rows = format == DataFormat.CSV ? new CsvRowReader(reader) : new NdjsonRowReader(reader, objectMapper);
+            for (ParsedRow row = rows.next(); row != null; row = rows.next()) {
+                report.total++;
+                PendingRow pending = validate(row, report);
+                if (pending == null) {
+                    continue;
+                }
+                batch.add(pending);
+                if (batch.size() >= batchSize) {
+                    insertBatch(batch, report);
+                    batch.clear();
+                }
+            }
+        }
+        insertBatch(batch, report);
+
+        log.info("Customer import finished: {} rows, {} imported, {} rejected", report.total, report.imported, report.rejected);
+        return report.toDTO();
+    }
+
+    private PendingRow validate(ParsedRow row, Report report) {
+        if (row.error() != null) {
+            report.reject(row.line(), null, null, row.error());
+            return null;
+        }
+        CustomerImportRowDTO dto = row.customer();
+        dto.setName(dto.getName() == null ? null : dto.getName().trim());
+        dto.setEmail(dto.getEmail() == null ? null : dto.getEmail().trim().toLowerCase(Locale.ROOT));
+        dto.setCpf(dto.getCpf() == null ? null : dto.getCpf().replaceAll("[.\\-\\s]", ""));
+
+        Set<ConstraintViolation<CustomerImportRowDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            String reason = violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+            report.reject(row.line(), dto.getEmail(), dto.getCpf(), reason);
+            return null;
+        }
+        return new PendingRow(row.line(), new NewCustomer(dto.getName(), dto.getCpf(), dto.getEmail()));
+    }
+
+    private void insertBatch(List<PendingRow> batch, Report report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<String> existingEmails = customerImportJdbcRepository.findExistingEmails(
+                batch.stream().map(row -> row.customer().email()).collect(Collectors.toSet()));
+        Set<String> existingCpfs = customerImportJdbcRepository.findExistingCpfs(
+                batch.stream().map(row -> row.customer().cpf()).collect(Collectors.toSet()));
+
+        Set<String> batchEmails = new HashSet<>();
+        Set<String> batchCpfs = new HashSet<>();
+        List<PendingRow> toInsert = new ArrayList<>(batch.size());
+        for (PendingRow row : batch) {
+            NewCustomer customer = row.customer();
+            if (existingEmails.contains(customer.email())) {
+                report.reject(row, "Email already registered");
+            } else if (existingCpfs.contains(customer.cpf())) {
+                report.reject(row, "CPF already registered");
+            } else if (batchEmails.contains(customer.email())) {
+                report.reject(row, "Duplicate email in file");
+            } else if (batchCpfs.contains(customer.cpf())) {
+                report.reject(row, "Duplicate CPF in file");
+            } else {
+                batchEmails.add(customer.email());
+                batchCpfs.add(customer.cpf());
+                toInsert.add(row);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    customerImportJdbcRepository.insertAll(toInsert.stream().map(PendingRow::customer).toList()));
+            report.imported += toInsert.size();
+        } catch (DataIntegrityViolationException e) {
+            // Outro cliente com o mesmo e-mail/CPF foi criado entre a checagem e o insert: refaz o lote linha a linha.
+            log.warn("Customer import batch hit a concurrent conflict, retrying {} rows one by one", toInsert.size());
+            for (PendingRow row : toInsert) {
+                if (customerImportJdbcRepository.insertIfAbsent(row.customer())) {
+                    report.imported++;
+                } else {
+                    report.reject(row, "Email or CPF already registered");
+                }
+            }
+        }
+    }
+
+    private record ParsedRow(long line, CustomerImportRowDTO customer, String error) {
+    }
+
+    private record PendingRow(long line, NewCustomer customer) {
+    }
+
+    private interface RowReader {
+        /**
+         * @return a próxima linha do arquivo, ou {@code null} no fim
+         */
+        ParsedRow next() throws IOException;
+    }
+
+    private static final class NdjsonRowReader implements RowReader {
+
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private long line;
+
+        NdjsonRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                JsonNode node = objectMapper.readTree(text);
+                return new ParsedRow(line, new CustomerImportRowDTO(
+                        node.path("name").textValue(), node.path("email").textValue(), node.path("cpf").textValue()), null);
+            } catch (JsonProcessingException e) {
+                return new ParsedRow(line, null, "Malformed JSON");
+            }
+        }
+    }
+
+    private static final class CsvRowReader implements RowReader {
+
+        private final BufferedReader reader;
+        private final int nameIndex;
+        private final int emailIndex;
+        private final int cpfIndex;
+        private final int columns;
+        private long line = 1;
+
+        CsvRowReader(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            String header = reader.readLine();
+            if (header == null) {
+                throw new InvalidRequestException("CSV header is missing. Expected: name,email,cpf");
+            }
+            List<String> names = parseLine(header.replace("\uFEFF", "")).stream()
+                    .map(column -> column.trim().toLowerCase(Locale.ROOT)).toList();
+            this.nameIndex = names.indexOf("name");
+            this.emailIndex = names.indexOf("email");
+            this.cpfIndex = names.indexOf("cpf");
+            this.columns = names.size();
+            if (nameIndex < 0 || emailIndex < 0 || cpfIndex < 0) {
+                throw new InvalidRequestException("CSV header must contain the columns name, email and cpf.");
+            }
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            List<String> values = parseLine(text);
+            if (values == null || values.size() != columns) {
+                return new ParsedRow(line, null, "Malformed CSV line");
+            }
+            return new ParsedRow(line, new CustomerImportRowDTO(values.get(nameIndex), values.get(emailIndex), values.get(cpfIndex)), null);
+        }
+
+        /**
+         * Campos separados por vírgula, com aspas duplas opcionais ({@code ""} escapa uma aspa).
+         * Campos com quebra de linha não são suportados.
+         *
+         * @return os campos, ou {@code null} se as aspas não estiverem balanceadas
+         */
+        private static List<String> parseLine(String text) {
+            List<String> values = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            if (quoted) {
+                return null;
+            }
+            values.add(current.toString());
+            return values;
+        }
+    }
+
+    private static final class Report {
+
+        private final int maxReportedRejections;
+        private final List<Rejection> rejections = new ArrayList<>();
+        private long total;
+        private long imported;
+        private long rejected;
+
+        Report(int maxReportedRejections) {
+            this.maxReportedRejections = maxReportedRejections;
+        }
+
+        void reject(PendingRow row, String reason) {
+            reject(row.line(), row.customer().email(), row.customer().cpf(), reason);
+        }
+
+        void reject(long line, String email, String cpf, String reason) {
+            rejected++;
+            if (rejections.size() < maxReportedRejections) {
+                rejections.add(new Rejection(line, email, cpf, reason));
+            }
+        }
+
+        CustomerImportResultDTO toDTO() {
+            return CustomerImportResultDTO.builder()
+                    .total(total)
+                    .imported(imported)
+                    .rejected(rejected)
+                    .rejections(rejections)
+                    .rejectionsTruncated(rejected > rejections.size())
+                    .build();
+        }
+    }
+}
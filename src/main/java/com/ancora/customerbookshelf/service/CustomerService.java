@@ -1,6 +1,8 @@
 package com.ancora.customerbookshelf.service;
 
+import com.ancora.customerbookshelf.dto.CursorPageDTO;
 import com.ancora.customerbookshelf.dto.CustomerDTO;
+import com.ancora.customerbookshelf.dto.FavoritesSummaryDTO;
 import com.ancora.customerbookshelf.dto.UpdateCustomerDTO;
 import com.ancora.customerbookshelf.exception.ConflictException;
 import com.ancora.customerbookshelf.exception.NoContentException;
@@ -8,13 +10,20 @@ import com.ancora.customerbookshelf.exception.ResourceNotFoundException;
 import com.ancora.customerbookshelf.mapper.CustomerMapper;
 import com.ancora.customerbookshelf.model.Customer;
 import com.ancora.customerbookshelf.repository.CustomerRepository;
-import jakarta.transaction.Transactional;
+import com.ancora.customerbookshelf.repository.FavoriteBookJdbcRepository;
+import com.ancora.customerbookshelf.util.Cursors;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
 
 
 @Service
@@ -23,6 +32,10 @@ import org.springframework.stereotype.Service;
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final FavoritesSummaryService favoritesSummaryService;
+    private final FavoriteBookJdbcRepository favoriteBookJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public CustomerDTO createCustomer(@Valid CustomerDTO customerDTO) {
         log.debug("Attempting to create customer with email: {} and CPF: {}", customerDTO.getEmail(), customerDTO.getCpf());
@@ -38,13 +51,15 @@ public class CustomerService {
         Customer customer = CustomerMapper.toEntity(customerDTO);
         Customer savedCustomer = customerRepository.save(customer);
         log.info("Successfully created customer with ID: {}", savedCustomer.getId());
-        return CustomerMapper.ToDTO(savedCustomer);
+        return CustomerMapper.ToDTO(savedCustomer, favoritesSummaryService.getSummary(savedCustomer));
     }
 
-    public CustomerDTO getCustomerById(Long id) {
+    @Transactional(readOnly = true)
+    public CustomerDTO getCustomerById(Long id, Integer top) {
         log.debug("Attempting to find customer with ID: {}", id);
+        int topK = favoritesSummaryService.resolveTopK(top);
         return customerRepository.findById(id)
-                .map(CustomerMapper::ToDTO)
+                .map(customer -> CustomerMapper.ToDTO(customer, favoritesSummaryService.getSummary(customer, topK)))
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + id));
     }
 
@@ -65,28 +80,55 @@ public class CustomerService {
         customer.setEmail(emailNormalized);
 
         Customer updatedCustomer = customerRepository.save(customer);
+        customerRepository.incrementVersion(id);
 
         log.info("Successfully updated customer with ID: {}", updatedCustomer.getId());
-        return CustomerMapper.ToDTO(updatedCustomer);
+        return CustomerMapper.ToDTO(updatedCustomer, favoritesSummaryService.getSummary(updatedCustomer));
     }
 
+    /**
+     * Os favoritos do cliente saem junto com ele: publica a remoção deles para que recomendações e ranking de
+     * tendências não continuem contando a estante apagada.
+     */
     @Transactional
     public void deleteCustomer(Long id) {
         log.debug("Attempting to delete customer with ID: {}", id);
         if (!customerRepository.existsById(id)) {
             throw new ResourceNotFoundException("Customer not found with id: " + id);
         }
+        List<String> favoriteIsbns = favoriteBookJdbcRepository.findIsbns(id);
+        if (!favoriteIsbns.isEmpty()) {
+            eventPublisher.publishEvent(new FavoriteChangedEvent(id, favoriteIsbns, false));
+        }
+        favoritesSummaryService.deleteSummary(id);
         customerRepository.deleteById(id);
         log.info("Successfully deleted customer with ID: {}", id);
     }
 
-    public Page<CustomerDTO> getAllCustomers(Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Page<CustomerDTO> getAllCustomers(Pageable pageable, Integer top) {
         log.debug("Attempting to find all customers for page request: {}", pageable);
+        int topK = favoritesSummaryService.resolveTopK(top);
         Page<Customer> page = customerRepository.findAll(pageable);
         if (page.isEmpty()) {
             throw new NoContentException("Don't have any customers");
         }
-        return page.map(CustomerMapper::ToDTO);
+        Map<Long, FavoritesSummaryDTO> summaries = favoritesSummaryService.getSummaries(page.getContent(), topK);
+        return page.map(customer -> CustomerMapper.ToDTO(customer, summaries.get(customer.getId())));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CustomerDTO> getCustomersAfter(String cursor, int size, Integer top) {
+        log.debug("Attempting to find customers after cursor: {}", cursor);
+        int topK = favoritesSummaryService.resolveTopK(top);
+        Long afterId = Cursors.decodeLong(cursor);
+        int pageSize = Cursors.pageSize(size);
+        List<Customer> rows = customerRepository.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(pageSize + 1));
+
+        return Cursors.page(rows, pageSize, customer -> String.valueOf(customer.getId()), customers -> {
+            Map<Long, FavoritesSummaryDTO> summaries = favoritesSummaryService.getSummaries(customers, topK);
+            return customers.stream().map(customer -> CustomerMapper.ToDTO(customer, summaries.get(customer.getId()))).toList();
+        });
     }
 
 
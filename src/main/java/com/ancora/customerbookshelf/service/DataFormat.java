@@ -0,0 +1,45 @@
+package com.ancora.customerbookshelf.service;
+
+import com.ancora.customerbookshelf.exception.InvalidRequestException;
+
+public enum DataFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    DataFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static DataFormat from(String value) {
+        for (DataFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new InvalidRequestException("Unsupported format: " + value + ". Use ndjson or csv.");
+    }
+
+    public static DataFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            String mimeType = contentType.split(";", 2)[0].trim();
+            for (DataFormat format : values()) {
+                if (format.contentType.equalsIgnoreCase(mimeType)) {
+                    return format;
+                }
+            }
+        }
+        throw new InvalidRequestException("Unsupported content type: " + contentType + ". Use application/x-ndjson or text/csv.");
+    }
+}
@@ -1,32 +1,29 @@
 package com.ancora.customerbookshelf.service;
 
 import com.ancora.customerbookshelf.dto.BookDTO;
-import com.ancora.customerbookshelf.dto.brasilapi.BookResponseDTO;
-import com.ancora.customerbookshelf.exception.BookAlreadyInFavoritesException;
-import com.ancora.customerbookshelf.exception.ExternalBookNotFoundException;
+import com.ancora.customerbookshelf.dto.CursorPageDTO;
 import com.ancora.customerbookshelf.exception.ResourceNotFoundException;
 import com.ancora.customerbookshelf.mapper.BookMapper;
 import com.ancora.customerbookshelf.model.Book;
 import com.ancora.customerbookshelf.model.Customer;
-import com.ancora.customerbookshelf.model.Dimensions;
 import com.ancora.customerbookshelf.repository.BookRepository;
 import com.ancora.customerbookshelf.repository.CustomerRepository;
+import com.ancora.customerbookshelf.repository.FavoriteBookJdbcRepository;
+import com.ancora.customerbookshelf.util.Cursors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
-import org.springframework.web.client.ResourceAccessException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -36,124 +33,127 @@ public class FavoriteBookService {
 
     private final CustomerRepository customerRepository;
     private final BookRepository bookRepository;
-    private final RestTemplate restTemplate;
-
-    @org.springframework.beans.factory.annotation.Value("${brasilapi.url}")
-    private String brasilApiUrl;
+    private final BookCatalogService bookCatalogService;
+    private final FavoriteBookJdbcRepository favoriteBookJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final FavoritesSummaryService favoritesSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * O total da página vem de {@code customer.favorites_count}, evitando o {@code COUNT} sobre a junção.
+     */
     @Transactional(readOnly = true)
     public Page<BookDTO> getFavoriteBooks(Long customerId, Pageable pageable) {
+        Customer customer = customerRepository.findById(customerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + customerId));
+        List<Book> books = bookRepository.findFavoritesByCustomerId(customerId, pageable);
+        return new PageImpl<>(books, pageable, customer.getFavoritesCount()).map(BookMapper::toDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<BookDTO> getFavoriteBooksAfter(Long customerId, String cursor, int size) {
         if (!customerRepository.existsById(customerId)) {
             throw new ResourceNotFoundException("Customer not found with id: " + customerId);
         }
-        Page<Book> bookPage = bookRepository.findFavoritesByCustomerId(customerId, pageable);
-        return bookPage.map(BookMapper::toDTO);
+        String afterIsbn = Cursors.decode(cursor);
+        int pageSize = Cursors.pageSize(size);
+        List<Book> rows = bookRepository.findFavoritesByCustomerIdAfter(customerId, afterIsbn == null ? "" : afterIsbn, Limit.of(pageSize + 1));
+        return Cursors.page(rows, pageSize, Book::getIsbn, books -> books.stream().map(BookMapper::toDTO).toList());
     }
 
     @Transactional(readOnly = true)
     public BookDTO getFavoriteBookByIsbn(Long customerId, String isbn) {
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + customerId));
+        if (!customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer not found with id: " + customerId);
+        }
 
-        return customer.getFavoriteBooks().stream()
-                .filter(book -> book.getIsbn().equals(isbn))
+        return bookRepository.findFavoriteByCustomerIdAndIsbn(customerId, isbn)
                 .map(BookMapper::toDTO)
-                .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException("Book with ISBN " + isbn + " not found in customer's favorites."));
     }
 
-    @Transactional
-    public void addBookToFavorites(Long customerId, String isbn) {
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + customerId));
-
-        boolean alreadyFavorited = customer.getFavoriteBooks().stream().anyMatch(book -> book.getIsbn().equals(isbn));
-        if (alreadyFavorited) {
-            throw new BookAlreadyInFavoritesException("Book with ISBN " + isbn + " is already in the customer's favorites.");
+    /**
+     * O livro é resolvido (banco ou BrasilAPI) antes de abrir a transação, para que nenhuma conexão
+     * do pool fique presa enquanto a API externa responde. A operação é idempotente: um favorito já
+     * existente não é buscado de novo, e o insert condicional ({@code ON DUPLICATE KEY UPDATE}) decide entre duas
+     * requisições concorrentes para o mesmo livro; só a que inseriu a linha atualiza o resumo. A transação começa
+     * travando a linha do cliente ({@link FavoritesSummaryService#lockCustomer}), então as escritas de um mesmo
+     * cliente não se cruzam.
+     *
+     * @return {@code true} se o favorito foi adicionado, {@code false} se já existia
+     */
+    public boolean addBookToFavorites(Long customerId, String isbn) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer not found with id: " + customerId);
         }
-
-        Book book = bookRepository.findById(isbn).orElseGet(() -> fetchAndSaveBook(isbn));
-
-        customer.getFavoriteBooks().add(book);
-        customerRepository.save(customer);
-    }
-
-    @Transactional
-    public void removeBookFromFavorites(Long customerId, String isbn) {
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + customerId));
-
-        Book bookToRemove = customer.getFavoriteBooks().stream()
-                .filter(book -> book.getIsbn().equals(isbn))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("Book with ISBN " + isbn + " not found in customer's favorites."));
-
-        customer.getFavoriteBooks().remove(bookToRemove);
-        customerRepository.save(customer);
-    }
-
-    private Book fetchAndSaveBook(String isbn) {
-        BookResponseDTO responseDTO = fetchBookFromBrasilApi(isbn);
-        if (responseDTO == null) {
-            throw new ExternalBookNotFoundException("Failed to fetch book data for ISBN " + isbn + " from external API after multiple retries.");
+        if (favoriteBookJdbcRepository.exists(customerId, isbn)) {
+            return false;
         }
 
-        Dimensions dimensions = Optional.ofNullable(responseDTO.getDimensions())
-                .map(d -> Dimensions.builder().width(d.getWidth()).height(d.getHeight()).unit(d.getUnit()).build())
-                .orElse(null);
-
-        Book newBook = Book.builder()
-                .isbn(responseDTO.getIsbn())
-                .title(responseDTO.getTitle())
-                .subtitle(responseDTO.getSubtitle())
-                .authors(responseDTO.getAuthors())
-                .publisher(responseDTO.getPublisher())
-                .synopsis(responseDTO.getSynopsis())
-                .dimensions(dimensions)
-                .year(responseDTO.getYear())
-                .format(responseDTO.getFormat())
-                .pageCount(responseDTO.getPageCount())
-                .subjects(responseDTO.getSubjects())
-                .location(responseDTO.getLocation())
-                .retailPrice(responseDTO.getRetailPrice())
-                .coverUrl(responseDTO.getCoverUrl())
-                .provider(responseDTO.getProvider())
-                .build();
-
-        return bookRepository.save(newBook);
+        Book book = bookCatalogService.findOrFetch(isbn);
+
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            favoritesSummaryService.lockCustomer(customerId);
+            if (!favoriteBookJdbcRepository.insert(customerId, book.getIsbn())) {
+                return false;
+            }
+            favoritesSummaryService.onFavoritesAdded(customerId, List.of(book.getIsbn()));
+            eventPublisher.publishEvent(new FavoriteChangedEvent(customerId, List.of(book.getIsbn()), true));
+            return true;
+        }));
     }
 
     /**
-     * Anotação que define este método como "tentável novamente".
-     * value = As exceções que, se lançadas, disparam a lógica de retentativa.
-     * maxAttempts = O número máximo de tentativas (a primeira + 2 retentativas).
-     * backoff = Define um tempo de espera entre as tentativas (neste caso, 2 segundos).
+     * Grava vários favoritos de uma vez (insert em lote). Os livros já devem existir na tabela {@code book}.
+     * Se outra requisição gravou algum deles no meio tempo, o lote insere menos linhas que o esperado sem dizer
+     * quais; nesse caso ele é desfeito e refeito linha a linha, para que o resumo conte só os favoritos novos.
+     *
+     * @return os ISBNs efetivamente adicionados
      */
-    @Retryable(
-            value = {ResourceAccessException.class, HttpServerErrorException.class},
-            maxAttempts = 3,
-            backoff = @Backoff(delay = 2000)
-    )
-    @Cacheable("booksByIsbn")
-    public BookResponseDTO fetchBookFromBrasilApi(String isbn) {
-        try {
-            String url = brasilApiUrl + isbn;
-            log.info("Fetching book with ISBN {} from URL: {}", isbn, url);
-            return restTemplate.getForObject(url, BookResponseDTO.class);
-        } catch (HttpClientErrorException.NotFound ex) {
-            // Esta exceção (404) não dispara a retentativa, pois significa que o livro não existe, então não adianta tentar de novo.
-            throw new ExternalBookNotFoundException("Book with ISBN " + isbn + " not found in external API.");
+    public List<String> addBooksToFavorites(Long customerId, Collection<String> isbns) {
+        List<String> unique = List.copyOf(new LinkedHashSet<>(isbns));
+        List<String> added = transactionTemplate.execute(status -> {
+            favoritesSummaryService.lockCustomer(customerId);
+            if (favoriteBookJdbcRepository.insertAllIfAbsent(customerId, unique) != unique.size()) {
+                status.setRollbackOnly();
+                return null;
+            }
+            favoritesSummaryService.onFavoritesAdded(customerId, unique);
+            eventPublisher.publishEvent(new FavoriteChangedEvent(customerId, unique, true));
+            return unique;
+        });
+        if (added != null) {
+            return added;
         }
+
+        log.debug("Concurrent favorite writes for customer {}, inserting {} books one by one", customerId, unique.size());
+        return transactionTemplate.execute(status -> {
+            favoritesSummaryService.lockCustomer(customerId);
+            List<String> inserted = unique.stream().filter(isbn -> favoriteBookJdbcRepository.insert(customerId, isbn)).toList();
+            favoritesSummaryService.onFavoritesAdded(customerId, inserted);
+            if (!inserted.isEmpty()) {
+                eventPublisher.publishEvent(new FavoriteChangedEvent(customerId, inserted, true));
+            }
+            return inserted;
+        });
     }
 
     /**
-     * Método de recuperação. É chamado pelo Spring quando o método anotado com @Retryable falha em todas as suas tentativas.
-     * A assinatura deve ser a mesma do método original, com a exceção que causou a falha como primeiro parâmetro.
+     * Idempotente: remover um favorito que não existe não altera nada.
+     *
+     * @return {@code true} se o favorito existia e foi removido
      */
-    @Recover
-    private BookResponseDTO recoverFromApiFailure(Exception ex, String isbn) {
-        log.error("All retry attempts failed for ISBN {}. Error: {}", isbn, ex.getMessage());
-        // Retornar nulo é uma forma de sinalizar para o método que o chamou (fetchAndSaveBook) que a operação falhou permanentemente.
-        return null;
+    @Transactional
+    public boolean removeBookFromFavorites(Long customerId, String isbn) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer not found with id: " + customerId);
+        }
+        favoritesSummaryService.lockCustomer(customerId);
+        if (!favoriteBookJdbcRepository.delete(customerId, isbn)) {
+            return false;
+        }
+        favoritesSummaryService.onFavoritesRemoved(customerId, List.of(isbn));
+        eventPublisher.publishEvent(new FavoriteChangedEvent(customerId, List.of(isbn), false));
+        return true;
     }
 }
@@ -0,0 +1,10 @@
+package com.ancora.customerbookshelf.service;
+
+import java.util.List;
+
+/**
+ * Favoritos adicionados ou removidos de um cliente. Publicado dentro da transação que gravou a mudança, com só os
+ * ISBNs que de fato mudaram; os ouvintes usam {@code @TransactionalEventListener} e só o recebem depois do commit.
+ */
+public record FavoriteChangedEvent(Long customerId, List<String> isbns, boolean added) {
+}
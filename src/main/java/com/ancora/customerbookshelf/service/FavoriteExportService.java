@@ -0,0 +1,197 @@
+package com.ancora.customerbookshelf.service;
+
+import com.ancora.customerbookshelf.exception.ResourceNotFoundException;
+import com.ancora.customerbookshelf.repository.CustomerRepository;
+import com.ancora.customerbookshelf.repository.FavoriteExportJdbcRepository;
+import com.ancora.customerbookshelf.repository.FavoriteExportJdbcRepository.ExportRow;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Exportação dos favoritos em NDJSON ou CSV, escrita direto no stream da resposta a partir do cursor JDBC.
+ * A memória usada não depende do tamanho da estante: só a linha atual e o buffer de escrita ficam em heap.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FavoriteExportService {
+
+    private static final String CSV_HEADER = "customer_id,isbn,title,subtitle,authors,publisher,year,format,page_count,subjects,retail_price";
+
+    private final CustomerRepository customerRepository;
+    private final FavoriteExportJdbcRepository favoriteExportJdbcRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void ensureCustomerExists(Long customerId) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer not found with id: " + customerId);
+        }
+    }
+
+    /**
+     * Sem transação: a consulta usa o pool de exportação e não deve segurar uma conexão do pool da aplicação.
+     */
+    public long exportCustomer(Long customerId, DataFormat format, OutputStream out) throws IOException {
+        return export(format, out, consumer -> favoriteExportJdbcRepository.streamByCustomer(customerId, consumer));
+    }
+
+    public long exportAll(DataFormat format, OutputStream out) throws IOException {
+        return export(format, out, favoriteExportJdbcRepository::streamAll);
+    }
+
+    private long export(DataFormat format, OutputStream out, Consumer<Consumer<ExportRow>> source) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowWriter rowWriter = format == DataFormat.NDJSON ? new NdjsonRowWriter(objectMapper, writer) : new CsvRowWriter(writer);
+        long[] rows = {0};
+        try {
+            rowWriter.start();
+            source.accept(row -> {
+                try {
+                    rowWriter.write(row);
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            rowWriter.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return rows[0];
+    }
+
+    private interface RowWriter {
+        default void start() throws IOException {
+        }
+
+        void write(ExportRow row) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(ObjectMapper objectMapper, Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+                    .setPrettyPrinter(new MinimalPrettyPrinter(""));
+        }
+
+        @Override
+        public void write(ExportRow row) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("customerId", row.customerId());
+            generator.writeStringField("isbn", row.isbn());
+            writeNullableString("title", row.title());
+            writeNullableString("subtitle", row.subtitle());
+            writeArray("authors", row.authors());
+            writeNullableString("publisher", row.publisher());
+            if (row.year() != null) {
+                generator.writeNumberField("year", row.year());
+            }
+            writeNullableString("format", row.format());
+            if (row.pageCount() != null) {
+                generator.writeNumberField("pageCount", row.pageCount());
+            }
+            writeArray("subjects", row.subjects());
+            if (row.retailPrice() != null) {
+                generator.writeNumberField("retailPrice", row.retailPrice());
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+            writer.flush();
+        }
+
+        private void writeNullableString(String field, String value) throws IOException {
+            if (value != null) {
+                generator.writeStringField(field, value);
+            }
+        }
+
+        private void writeArray(String field, List<String> values) throws IOException {
+            generator.writeArrayFieldStart(field);
+            for (String value : values) {
+                generator.writeString(value);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ExportRow row) throws IOException {
+            writer.write(Long.toString(row.customerId()));
+            writeField(row.isbn());
+            writeField(row.title());
+            writeField(row.subtitle());
+            writeField(String.join("; ", row.authors()));
+            writeField(row.publisher());
+            writeField(row.year());
+            writeField(row.format());
+            writeField(row.pageCount());
+            writeField(String.join("; ", row.subjects()));
+            writeField(row.retailPrice());
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void writeField(Object value) throws IOException {
+            writer.write(',');
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+    }
+}
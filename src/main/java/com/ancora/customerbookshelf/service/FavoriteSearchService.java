@@ -0,0 +1,102 @@
+package com.ancora.customerbookshelf.service;
+
+import com.ancora.customerbookshelf.dto.FavoriteSearchRequestDTO;
+import com.ancora.customerbookshelf.dto.FavoriteSearchResultDTO;
+import com.ancora.customerbookshelf.exception.InvalidRequestException;
+import com.ancora.customerbookshelf.exception.ResourceNotFoundException;
+import com.ancora.customerbookshelf.repository.CustomerRepository;
+import com.ancora.customerbookshelf.repository.FavoriteSearchJdbcRepository;
+import com.ancora.customerbookshelf.util.Cursors;
+import com.ancora.customerbookshelf.util.SingleFlight;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+/**
+ * Busca facetada nos favoritos de um cliente, respondida por um {@link ShelfIndex} em memória. Os índices ficam em
+ * um cache limitado pela memória estimada dos índices ({@code favorite-search.index.maximum-bytes}) e cada um guarda a
+ * {@code customer.version} da estante: como toda alteração dos favoritos (nesta ou em outra instância) incrementa a
+ * versão, um índice desatualizado é detectado por uma consulta pela chave e remontado. Buscas simultâneas do mesmo
+ * cliente e da mesma versão compartilham uma única remontagem.
+ */
+@Service
+@Slf4j
+public class FavoriteSearchService implements MeterBinder {
+
+    private static final int MAX_FACET_SIZE = 50;
+
+    private final CustomerRepository customerRepository;
+    private final FavoriteSearchJdbcRepository favoriteSearchJdbcRepository;
+    private final Cache<Long, ShelfIndex> indexes;
+    private final SingleFlight<BuildKey, ShelfIndex> builds = new SingleFlight<>();
+
+    public FavoriteSearchService(CustomerRepository customerRepository,
+                                 FavoriteSearchJdbcRepository favoriteSearchJdbcRepository,
+                                 @Value("${favorite-search.index.maximum-bytes}") long maximumBytes,
+                                 @Value("${favorite-search.index.idle-ttl-ms}") long idleTtlMs) {
+        this.customerRepository = customerRepository;
+        this.favoriteSearchJdbcRepository = favoriteSearchJdbcRepository;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((Long customerId, ShelfIndex index) -> index.estimatedBytes())
+                .expireAfterAccess(Duration.ofMillis(idleTtlMs))
+                .recordStats()
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public FavoriteSearchResultDTO search(Long customerId, FavoriteSearchRequestDTO request) {
+        validate(request);
+        long version = customerRepository.findVersionById(customerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + customerId));
+
+        ShelfIndex index = indexes.getIfPresent(customerId);
+        if (index == null || index.version() != version) {
+            // Uma busca que já leu uma versão mais nova não reaproveita a remontagem em curso de uma versão anterior.
+            index = builds.execute(new BuildKey(customerId, version), () -> build(customerId, version)).value();
+        }
+        return index.search(request);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, indexes, "favorites.search-index");
+    }
+
+    private ShelfIndex build(Long customerId, long version) {
+        long startedAt = System.nanoTime();
+        ShelfIndex index = ShelfIndex.build(version, favoriteSearchJdbcRepository.findShelf(customerId));
+        // Uma remontagem mais lenta não substitui um índice de versão mais nova.
+        indexes.asMap().merge(customerId, index, (current, built) -> built.version() >= current.version() ? built : current);
+        log.debug("Built search index for customer {} ({} books, version {}) in {} ms",
+                customerId, index.size(), version, (System.nanoTime() - startedAt) / 1_000_000);
+        return index;
+    }
+
+    private static void validate(FavoriteSearchRequestDTO request) {
+        if (request.getPage() < 0) {
+            throw new InvalidRequestException("page must not be negative.");
+        }
+        request.setSize(Cursors.pageSize(request.getSize()));
+        if (request.getFacetSize() < 0 || request.getFacetSize() > MAX_FACET_SIZE) {
+            throw new InvalidRequestException("facetSize must be between 0 and " + MAX_FACET_SIZE + ".");
+        }
+        if (request.getYearFrom() != null && request.getYearTo() != null && request.getYearFrom() > request.getYearTo()) {
+            throw new InvalidRequestException("yearFrom must not be greater than yearTo.");
+        }
+        if (request.getPriceMin() != null && request.getPriceMax() != null && request.getPriceMin() > request.getPriceMax()) {
+            throw new InvalidRequestException("priceMin must not be greater than priceMax.");
+        }
+    }
+
+    private record BuildKey(Long customerId, long version) {
+    }
+}
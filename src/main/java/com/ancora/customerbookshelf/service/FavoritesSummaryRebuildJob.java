@@ -0,0 +1,64 @@
+package com.ancora.customerbookshelf.service;
+
+import com.ancora.customerbookshelf.repository.FavoritesSummaryJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Recalcula o resumo de favoritos de todos os clientes a partir da tabela {@code customer_favorite_books}.
+ * Com {@code favorites.summary.rebuild-on-startup=auto} roda só quando os contadores ainda não foram populados
+ * (base anterior aos contadores); {@code true} força o recálculo e {@code false} o desliga. Roda antes da aplicação
+ * aceitar tráfego, em lotes de ids, cada lote em sua própria transação.
+ */
+@Component
+@Slf4j
+public class FavoritesSummaryRebuildJob implements ApplicationRunner {
+
+    private final FavoritesSummaryJdbcRepository favoritesSummaryJdbcRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final String mode;
+
+    public FavoritesSummaryRebuildJob(FavoritesSummaryJdbcRepository favoritesSummaryJdbcRepository,
+                                      JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${favorites.summary.rebuild-batch-size}") int batchSize,
+                                      @Value("${favorites.summary.rebuild-on-startup}") String mode) {
+        this.favoritesSummaryJdbcRepository = favoritesSummaryJdbcRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.mode = mode;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if ("false".equals(mode)) {
+            return;
+        }
+        if ("auto".equals(mode) && !favoritesSummaryJdbcRepository.hasUninitializedCounters()) {
+            log.debug("Favorites summary counters already initialized, skipping rebuild.");
+            return;
+        }
+
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM customer", Long.class);
+        if (maxId == null) {
+            log.info("No customers found, skipping favorites summary rebuild.");
+            return;
+        }
+
+        log.info("Rebuilding favorites summary for customers up to id {} in batches of {}.", maxId, batchSize);
+        for (long start = 1; start <= maxId; start += batchSize) {
+            long fromId = start;
+            long toId = Math.min(start + batchSize - 1, maxId);
+            transactionTemplate.executeWithoutResult(status -> favoritesSummaryJdbcRepository.rebuild(fromId, toId));
+        }
+        log.info("Finished rebuilding favorites summary.");
+    }
+}
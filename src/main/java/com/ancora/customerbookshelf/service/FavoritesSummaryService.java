@@ -0,0 +1,126 @@
+package com.ancora.customerbookshelf.service;
+
+import com.ancora.customerbookshelf.dto.FavoritesSummaryDTO;
+import com.ancora.customerbookshelf.exception.InvalidRequestException;
+import com.ancora.customerbookshelf.mapper.CustomerMapper;
+import com.ancora.customerbookshelf.model.Customer;
+import com.ancora.customerbookshelf.model.FavoriteTermCount;
+import com.ancora.customerbookshelf.model.FavoriteTermCount.TermType;
+import com.ancora.customerbookshelf.repository.FavoriteTermCountRepository;
+import com.ancora.customerbookshelf.repository.FavoritesSummaryJdbcRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resumo de favoritos pré-calculado: quantidade de favoritos e contadores por autor e por assunto.
+ * Os métodos de escrita exigem a transação de quem altera os favoritos, para que resumo e favoritos
+ * sejam gravados juntos.
+ */
+@Service
+public class FavoritesSummaryService {
+
+    public static final int MAX_TOP_K = 50;
+
+    private final FavoritesSummaryJdbcRepository favoritesSummaryJdbcRepository;
+    private final FavoriteTermCountRepository favoriteTermCountRepository;
+    private final int defaultTopK;
+
+    public FavoritesSummaryService(FavoritesSummaryJdbcRepository favoritesSummaryJdbcRepository,
+                                   FavoriteTermCountRepository favoriteTermCountRepository,
+                                   @Value("${favorites.summary.top-k}") int defaultTopK) {
+        this.favoritesSummaryJdbcRepository = favoritesSummaryJdbcRepository;
+        this.favoriteTermCountRepository = favoriteTermCountRepository;
+        this.defaultTopK = defaultTopK;
+    }
+
+    /**
+     * Quantos autores/assuntos entram no resumo: o valor pedido pelo cliente da API ou o padrão configurado.
+     */
+    public int resolveTopK(Integer requested) {
+        if (requested == null) {
+            return defaultTopK;
+        }
+        if (requested < 1 || requested > MAX_TOP_K) {
+            throw new InvalidRequestException("top must be between 1 and " + MAX_TOP_K + ".");
+        }
+        return requested;
+    }
+
+    /**
+     * Trava a linha do cliente até o fim da transação. Quem altera os favoritos chama antes de gravar na tabela de
+     * junção: a FK dessa tabela toma um lock compartilhado na linha do cliente, e duas escritas que o promovessem
+     * depois para exclusivo (no {@code favorites_count}) entrariam em deadlock. Assim as escritas do mesmo cliente
+     * são serializadas e as de clientes diferentes seguem em paralelo.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockCustomer(Long customerId) {
+        favoritesSummaryJdbcRepository.lockCustomer(customerId);
+    }
+
+    /**
+     * O {@code favorites_count} é atualizado antes dos termos, para que o lock da linha do cliente venha primeiro
+     * também quando quem chama não usou {@link #lockCustomer}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onFavoritesAdded(Long customerId, Collection<String> isbns) {
+        if (isbns.isEmpty()) {
+            return;
+        }
+        favoritesSummaryJdbcRepository.adjustFavoritesCount(customerId, isbns.size());
+        for (TermType termType : TermType.values()) {
+            favoritesSummaryJdbcRepository.incrementTerms(customerId, termType, countTerms(termType, isbns));
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onFavoritesRemoved(Long customerId, Collection<String> isbns) {
+        if (isbns.isEmpty()) {
+            return;
+        }
+        favoritesSummaryJdbcRepository.adjustFavoritesCount(customerId, -isbns.size());
+        for (TermType termType : TermType.values()) {
+            favoritesSummaryJdbcRepository.decrementTerms(customerId, termType, countTerms(termType, isbns));
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteSummary(Long customerId) {
+        favoritesSummaryJdbcRepository.deleteByCustomerId(customerId);
+    }
+
+    @Transactional(readOnly = true)
+    public FavoritesSummaryDTO getSummary(Customer customer) {
+        return getSummary(customer, defaultTopK);
+    }
+
+    @Transactional(readOnly = true)
+    public FavoritesSummaryDTO getSummary(Customer customer, int topK) {
+        return CustomerMapper.toSummary(customer.getFavoritesCount(), favoriteTermCountRepository.findByCustomerId(customer.getId()), topK);
+    }
+
+    /**
+     * Resumos de uma página de clientes com uma única consulta aos contadores.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, FavoritesSummaryDTO> getSummaries(Collection<Customer> customers, int topK) {
+        List<Long> ids = customers.stream().map(Customer::getId).toList();
+        Map<Long, List<FavoriteTermCount>> termsByCustomer = favoriteTermCountRepository.findByCustomerIdIn(ids).stream()
+                .collect(Collectors.groupingBy(FavoriteTermCount::getCustomerId));
+
+        return customers.stream().collect(Collectors.toMap(Customer::getId,
+                customer -> CustomerMapper.toSummary(customer.getFavoritesCount(), termsByCustomer.getOrDefault(customer.getId(), List.of()), topK)));
+    }
+
+    private Map<String, Long> countTerms(TermType termType, Collection<String> isbns) {
+        return favoritesSummaryJdbcRepository.findTerms(termType, isbns).stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    }
+}
@@ -0,0 +1,110 @@
+package com.ancora.customerbookshelf.service;
+
+import com.ancora.customerbookshelf.exception.IdempotencyKeyReusedException;
+import com.ancora.customerbookshelf.exception.InvalidRequestException;
+import com.ancora.customerbookshelf.util.SingleFlight;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Suporte ao header {@code Idempotency-Key}: o status de uma operação concluída com sucesso fica guardado
+ * (por cliente e chave, com TTL) e uma nova chamada com a mesma chave recebe esse status sem executar nada.
+ * Chamadas simultâneas com a mesma chave executam uma única vez. Falhas não são guardadas, então o cliente
+ * pode repetir a chamada com a mesma chave. Reusar a chave em outra operação é recusado com 422.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, StoredOutcome> completed;
+    private final SingleFlight<String, StoredOutcome> inFlight = new SingleFlight<>();
+    private final Counter replays;
+
+    public IdempotencyService(@Value("${idempotency.maximum-size}") long maximumSize,
+                              @Value("${idempotency.ttl-ms}") long ttlMs,
+                              MeterRegistry meterRegistry) {
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+        this.replays = Counter.builder("idempotency.replays")
+                .description("Requests answered from a stored Idempotency-Key outcome")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param idempotencyKey valor do header; sem ele a ação é executada normalmente
+     * @param operation      identifica a operação (método, recurso), para detectar o reuso da chave em outra
+     */
+    public Outcome execute(String idempotencyKey, String operation, Supplier<HttpStatus> action) {
+        if (idempotencyKey == null) {
+            return new Outcome(action.get(), false);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException(HEADER + " must have between 1 and " + MAX_KEY_LENGTH + " characters.");
+        }
+
+        String key = clientId() + ':' + idempotencyKey;
+        StoredOutcome stored = completed.getIfPresent(key);
+        if (stored != null) {
+            return replay(stored, operation, idempotencyKey);
+        }
+
+        AtomicBoolean executed = new AtomicBoolean();
+        SingleFlight.Result<StoredOutcome> result = inFlight.execute(key, () -> {
+            // Outra chamada pode ter concluído entre a consulta acima e a entrada no single flight.
+            StoredOutcome finished = completed.getIfPresent(key);
+            if (finished != null) {
+                return finished;
+            }
+            StoredOutcome outcome = new StoredOutcome(operation, action.get());
+            completed.put(key, outcome);
+            executed.set(true);
+            return outcome;
+        });
+        if (!executed.get()) {
+            return replay(result.value(), operation, idempotencyKey);
+        }
+        return new Outcome(result.value().status(), false);
+    }
+
+    private Outcome replay(StoredOutcome stored, String operation, String idempotencyKey) {
+        if (!stored.operation().equals(operation)) {
+            throw new IdempotencyKeyReusedException(HEADER + " " + idempotencyKey + " was already used for a different request.");
+        }
+        replays.increment();
+        log.debug("Replaying stored outcome {} for {} {}", stored.status(), HEADER, idempotencyKey);
+        return new Outcome(stored.status(), true);
+    }
+
+    private static String clientId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "";
+    }
+
+    /**
+     * @param replayed {@code true} quando o status veio de uma execução anterior com a mesma chave
+     */
+    public record Outcome(HttpStatus status, boolean replayed) {
+    }
+
+    private record StoredOutcome(String operation, HttpStatus status) {
+    }
+}
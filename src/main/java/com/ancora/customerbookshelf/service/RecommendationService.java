@@ -0,0 +1,212 @@
+package com.ancora.customerbookshelf.service;
+
+import com.ancora.customerbookshelf.dto.RecommendationDTO;
+import com.ancora.customerbookshelf.exception.InvalidRequestException;
+import com.ancora.customerbookshelf.exception.ResourceNotFoundException;
+import com.ancora.customerbookshelf.mapper.BookMapper;
+import com.ancora.customerbookshelf.model.Book;
+import com.ancora.customerbookshelf.repository.BookRepository;
+import com.ancora.customerbookshelf.repository.CoFavoriteJdbcRepository;
+import com.ancora.customerbookshelf.repository.CustomerRepository;
+import com.ancora.customerbookshelf.service.CoFavoriteIndex.Recommendation;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Recomendações "quem favoritou este também favoritou", servidas do {@link CoFavoriteIndex} em memória.
+ * O índice é montado a partir de {@code customer_favorite_books} quando a aplicação fica pronta e de novo a cada
+ * {@code recommendations.rebuild-interval-ms} (o que também traz as mudanças feitas em outras instâncias); entre
+ * uma montagem e outra, cada {@link FavoriteChangedEvent} confirmado nesta instância é aplicado a ele.
+ * <p>
+ * Eventos que chegam durante uma montagem também são guardados e reaplicados no índice novo antes da troca:
+ * como {@link CoFavoriteIndex#apply} é idempotente por estante, tanto faz se a leitura do banco já os viu.
+ * Até a primeira montagem terminar, as recomendações vêm vazias.
+ */
+@Service
+@ConditionalOnProperty(name = "recommendations.enabled", havingValue = "true")
+@Slf4j
+public class RecommendationService implements MeterBinder {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final CoFavoriteJdbcRepository coFavoriteJdbcRepository;
+    private final CustomerRepository customerRepository;
+    private final BookRepository bookRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer buildTimer;
+    private final int neighborsPerBook;
+    private final int maxShelfSize;
+    private final int buildParallelism;
+    private final AtomicBoolean building = new AtomicBoolean();
+    private final ReentrantLock swapLock = new ReentrantLock();
+    private final List<FavoriteChangedEvent> pending = new ArrayList<>();
+    private boolean buffering;
+    private volatile CoFavoriteIndex index;
+
+    public RecommendationService(CoFavoriteJdbcRepository coFavoriteJdbcRepository,
+                                 CustomerRepository customerRepository,
+                                 BookRepository bookRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${recommendations.neighbors-per-book}") int neighborsPerBook,
+                                 @Value("${recommendations.max-shelf-size}") int maxShelfSize,
+                                 @Value("${recommendations.build-parallelism}") int buildParallelism) {
+        this.coFavoriteJdbcRepository = coFavoriteJdbcRepository;
+        this.customerRepository = customerRepository;
+        this.bookRepository = bookRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.neighborsPerBook = neighborsPerBook;
+        this.maxShelfSize = maxShelfSize;
+        this.buildParallelism = buildParallelism > 0 ? buildParallelism : Runtime.getRuntime().availableProcessors();
+
+        this.buildTimer = Timer.builder("recommendations.index.build")
+                .description("Time to rebuild the co-favorite index from customer_favorite_books")
+                .register(meterRegistry);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecommendationDTO> forBook(String isbn, int limit) {
+        validate(limit);
+        CoFavoriteIndex current = index;
+        return current == null ? List.of() : toDTOs(current.similar(isbn, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecommendationDTO> forCustomer(Long customerId, int limit) {
+        validate(limit);
+        if (!customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer not found with id: " + customerId);
+        }
+        CoFavoriteIndex current = index;
+        return current == null ? List.of() : toDTOs(current.forCustomer(customerId, limit));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("recommendations.index.books", this, service -> service.index == null ? 0 : service.index.books())
+                .description("Books in the co-favorite index")
+                .register(registry);
+        Gauge.builder("recommendations.index.pairs", this, service -> service.index == null ? 0 : service.index.pairs())
+                .description("Neighbor entries kept in the co-favorite index after top-k pruning")
+                .register(registry);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * O agendador só dispara: a montagem roda no executor do {@code @Async}, como na subida, para não ocupar a thread
+     * dos jobs curtos (snapshot e flush do trending, verificação das réplicas). Disparos durante uma montagem em curso
+     * são ignorados por {@link #rebuild}.
+     */
+    @Async
+    @Scheduled(initialDelayString = "${recommendations.rebuild-interval-ms}", fixedDelayString = "${recommendations.rebuild-interval-ms}")
+    public void rebuildPeriodically() {
+        rebuild();
+    }
+
+    @TransactionalEventListener
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        swapLock.lock();
+        try {
+            if (buffering) {
+                pending.add(event);
+            }
+            CoFavoriteIndex current = index;
+            if (current != null) {
+                current.apply(event);
+            }
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    private void rebuild() {
+        if (!building.compareAndSet(false, true)) {
+            log.debug("Co-favorite index build already running, skipping.");
+            return;
+        }
+        setBuffering(true);
+        try {
+            long startedAt = System.nanoTime();
+            CoFavoriteIndex.Builder builder = CoFavoriteIndex.builder(neighborsPerBook, maxShelfSize);
+            readOnlyTransaction.executeWithoutResult(status ->
+                    coFavoriteJdbcRepository.streamAll((isbn, customerId) -> builder.add(customerId, isbn)));
+            CoFavoriteIndex built = builder.build(buildParallelism);
+
+            swapLock.lock();
+            try {
+                pending.forEach(built::apply);
+                index = built;
+            } finally {
+                swapLock.unlock();
+            }
+            long elapsed = System.nanoTime() - startedAt;
+            buildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Built co-favorite index with {} books and {} neighbor pairs in {} ms.",
+                    built.books(), built.pairs(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        } catch (Exception e) {
+            // Continua servindo o índice anterior (ou nenhum) até a próxima montagem.
+            log.error("Co-favorite index build failed: {}", e.getMessage(), e);
+        } finally {
+            setBuffering(false);
+            building.set(false);
+        }
+    }
+
+    private void setBuffering(boolean value) {
+        swapLock.lock();
+        try {
+            buffering = value;
+            pending.clear();
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    private List<RecommendationDTO> toDTOs(List<Recommendation> recommendations) {
+        Map<String, Book> books = bookRepository.findAllById(recommendations.stream().map(Recommendation::isbn).toList())
+                .stream()
+                .collect(Collectors.toMap(Book::getIsbn, Function.identity()));
+        return recommendations.stream()
+                .filter(recommendation -> books.containsKey(recommendation.isbn()))
+                .map(recommendation -> RecommendationDTO.builder()
+                        .book(BookMapper.toDTO(books.get(recommendation.isbn())))
+                        .score(recommendation.score())
+                        .build())
+                .toList();
+    }
+
+    private static void validate(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.ancora.customerbookshelf.service;
+
+import com.ancora.customerbookshelf.dto.BookDTO;
+import com.ancora.customerbookshelf.dto.FavoriteFacetsDTO;
+import com.ancora.customerbookshelf.dto.FavoriteFacetsDTO.FacetCount;
+import com.ancora.customerbookshelf.dto.FavoriteSearchRequestDTO;
+import com.ancora.customerbookshelf.dto.FavoriteSearchResultDTO;
+import com.ancora.customerbookshelf.mapper.BookMapper;
+import com.ancora.customerbookshelf.model.Book;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido em memória da estante de um cliente, usado pela busca facetada dos favoritos.
+ * Cada valor de faceta (autor, assunto, editora, formato, ano) vira um id com a lista ordenada dos livros que o têm,
+ * e as palavras de título, subtítulo e sinopse (minúsculas, sem acento) ficam em um mapa ordenado que permite busca
+ * por prefixo. Uma consulta combina os filtros em um {@link BitSet} sobre as posições dos livros e conta as facetas
+ * só sobre os livros que sobraram, com um contador {@code int} por id de valor.
+ * O índice é imutável e guarda a {@code customer.version} da estante a partir da qual foi montado.
+ */
+public final class ShelfIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final long version;
+    private final BookDTO[] books;
+    private final Facet authors;
+    private final Facet subjects;
+    private final Facet publishers;
+    private final Facet formats;
+    private final Facet years;
+    private final Integer[] yearByBook;
+    private final Double[] priceByBook;
+    private final NavigableMap<String, int[]> terms;
+    private final int estimatedBytes;
+
+    private ShelfIndex(long version, List<Book> shelf) {
+        this.version = version;
+        this.books = shelf.stream().map(BookMapper::toDTO).toArray(BookDTO[]::new);
+        this.authors = Facet.of(shelf, Book::getAuthors);
+        this.subjects = Facet.of(shelf, Book::getSubjects);
+        this.publishers = Facet.of(shelf, book -> single(book.getPublisher()));
+        this.formats = Facet.of(shelf, book -> single(book.getFormat()));
+        this.years = Facet.of(shelf, book -> single(book.getYear() == null ? null : book.getYear().toString()));
+        this.yearByBook = shelf.stream().map(Book::getYear).toArray(Integer[]::new);
+        this.priceByBook = shelf.stream().map(Book::getRetailPrice).toArray(Double[]::new);
+        this.terms = indexTerms(shelf);
+        this.estimatedBytes = (int) Math.min(Integer.MAX_VALUE, estimateBytes());
+    }
+
+    /**
+     * @param shelf os livros da estante, na ordem em que devem ser paginados
+     */
+    public static ShelfIndex build(long version, List<Book> shelf) {
+        return new ShelfIndex(version, shelf);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return books.length;
+    }
+
+    /**
+     * Estimativa do heap ocupado pelo índice (livros, facetas e palavras), usada como peso no cache de índices.
+     */
+    public int estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public FavoriteSearchResultDTO search(FavoriteSearchRequestDTO request) {
+        BitSet matches = new BitSet(books.length);
+        matches.set(0, books.length);
+        authors.filter(request.getAuthor(), matches);
+        subjects.filter(request.getSubject(), matches);
+        publishers.filter(request.getPublisher(), matches);
+        formats.filter(request.getFormat(), matches);
+        filterText(request.getQ(), matches);
+        filterRanges(request, matches);
+
+        List<BookDTO> content = new ArrayList<>(request.getSize());
+        long skip = (long) request.getPage() * request.getSize();
+        for (int book = matches.nextSetBit(0); book >= 0 && content.size() < request.getSize(); book = matches.nextSetBit(book + 1)) {
+            if (skip > 0) {
+                skip--;
+            } else {
+                content.add(books[book]);
+            }
+        }
+
+        return FavoriteSearchResultDTO.builder()
+                .content(content)
+                .page(request.getPage())
+                .size(request.getSize())
+                .totalElements(matches.cardinality())
+                .facets(facets(matches, request.getFacetSize()))
+                .build();
+    }
+
+    private void filterText(String query, BitSet matches) {
+        if (query == null || query.isBlank()) {
+            return;
+        }
+        for (String token : tokens(query)) {
+            // Cada palavra da consulta casa com as palavras do índice que começam com ela.
+            BitSet any = new BitSet(books.length);
+            for (int[] postings : terms.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                for (int book : postings) {
+                    any.set(book);
+                }
+            }
+            matches.and(any);
+        }
+    }
+
+    private void filterRanges(FavoriteSearchRequestDTO request, BitSet matches) {
+        boolean byYear = request.getYearFrom() != null || request.getYearTo() != null;
+        boolean byPrice = request.getPriceMin() != null || request.getPriceMax() != null;
+        if (!byYear && !byPrice) {
+            return;
+        }
+        for (int book = matches.nextSetBit(0); book >= 0; book = matches.nextSetBit(book + 1)) {
+            if ((byYear && !inRange(yearByBook[book], request.getYearFrom(), request.getYearTo()))
+                    || (byPrice && !inRange(priceByBook[book], request.getPriceMin(), request.getPriceMax()))) {
+                matches.clear(book);
+            }
+        }
+    }
+
+    private FavoriteFacetsDTO facets(BitSet matches, int facetSize) {
+        Double minPrice = null;
+        Double maxPrice = null;
+        for (int book = matches.nextSetBit(0); book >= 0; book = matches.nextSetBit(book + 1)) {
+            Double price = priceByBook[book];
+            if (price != null) {
+                minPrice = minPrice == null ? price : Math.min(minPrice, price);
+                maxPrice = maxPrice == null ? price : Math.max(maxPrice, price);
+            }
+        }
+        return FavoriteFacetsDTO.builder()
+                .authors(authors.count(matches, facetSize))
+                .subjects(subjects.count(matches, facetSize))
+                .publishers(publishers.count(matches, facetSize))
+                .formats(formats.count(matches, facetSize))
+                .years(years.count(matches, facetSize))
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .build();
+    }
+
+    private long estimateBytes() {
+        long bytes = 64;
+        for (BookDTO book : books) {
+            // Objeto, referências dos arrays paralelos e os boxes de ano, páginas e preço.
+            bytes += 64 + 16 + 48
+                    + stringBytes(book.getIsbn()) + stringBytes(book.getTitle()) + stringBytes(book.getSubtitle())
+                    + stringBytes(book.getAuthor()) + stringBytes(book.getPublisher()) + stringBytes(book.getFormat())
+                    + stringBytes(book.getSubject());
+        }
+        for (Map.Entry<String, int[]> term : terms.entrySet()) {
+            // Nó da TreeMap, a palavra e a lista de livros.
+            bytes += 40 + stringBytes(term.getKey()) + 16 + 4L * term.getValue().length;
+        }
+        return bytes + authors.estimateBytes() + subjects.estimateBytes() + publishers.estimateBytes()
+                + formats.estimateBytes() + years.estimateBytes();
+    }
+
+    /**
+     * Tamanho aproximado de uma {@link String} compacta: cabeçalho, array e um byte por caractere.
+     */
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+
+    private static <T extends Comparable<T>> boolean inRange(T value, T from, T to) {
+        return value != null && (from == null || value.compareTo(from) >= 0) && (to == null || value.compareTo(to) <= 0);
+    }
+
+    private static NavigableMap<String, int[]> indexTerms(List<Book> shelf) {
+        Map<String, IntList> postings = new HashMap<>();
+        for (int book = 0; book < shelf.size(); book++) {
+            Book b = shelf.get(book);
+            String text = String.join(" ", nullToEmpty(b.getTitle()), nullToEmpty(b.getSubtitle()), nullToEmpty(b.getSynopsis()));
+            for (String token : tokens(text)) {
+                postings.computeIfAbsent(token, ignored -> new IntList()).add(book);
+            }
+        }
+        NavigableMap<String, int[]> terms = new TreeMap<>();
+        postings.forEach((token, books) -> terms.put(token, books.toArray()));
+        return terms;
+    }
+
+    private static Set<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : NON_WORD.split(normalize(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static String normalize(String value) {
+        String trimmed = value.trim();
+        for (int i = 0; i < trimmed.length(); i++) {
+            if (trimmed.charAt(i) >= 0x80) {
+                return MARKS.matcher(Normalizer.normalize(trimmed, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+            }
+        }
+        // Sem acentos possíveis: dispensa o Normalizer, que domina o custo de montar o índice.
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> single(String value) {
+        return value == null ? List.of() : List.of(value);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Uma faceta: dicionário de valores (comparados sem acento e sem caixa), livros por valor e valores por livro.
+     */
+    private static final class Facet {
+
+        private final String[] values;
+        private final Map<String, Integer> ids;
+        private final int[][] booksByValue;
+        private final int[][] valuesByBook;
+
+        private Facet(String[] values, Map<String, Integer> ids, int[][] booksByValue, int[][] valuesByBook) {
+            this.values = values;
+            this.ids = ids;
+            this.booksByValue = booksByValue;
+            this.valuesByBook = valuesByBook;
+        }
+
+        static Facet of(List<Book> shelf, Function<Book, Collection<String>> valuesOf) {
+            Map<String, Integer> ids = new HashMap<>();
+            // Valores se repetem muito entre livros (editora, formato, ano): normaliza cada grafia uma vez só.
+            Map<String, Integer> idsByRawValue = new HashMap<>();
+            List<String> values = new ArrayList<>();
+            List<IntList> books = new ArrayList<>();
+            int[][] valuesByBook = new int[shelf.size()][];
+            for (int book = 0; book < shelf.size(); book++) {
+                Collection<String> bookValues = valuesOf.apply(shelf.get(book));
+                Set<Integer> bookIds = new LinkedHashSet<>();
+                if (bookValues != null) {
+                    for (String value : bookValues) {
+                        if (value == null || value.isBlank()) {
+                            continue;
+                        }
+                        Integer id = idsByRawValue.computeIfAbsent(value, raw -> ids.computeIfAbsent(normalize(raw), ignored -> {
+                            values.add(raw.trim());
+                            books.add(new IntList());
+                            return values.size() - 1;
+                        }));
+                        if (bookIds.add(id)) {
+                            books.get(id).add(book);
+                        }
+                    }
+                }
+                valuesByBook[book] = bookIds.stream().mapToInt(Integer::intValue).toArray();
+            }
+            return new Facet(values.toArray(String[]::new), ids,
+                    books.stream().map(IntList::toArray).toArray(int[][]::new), valuesByBook);
+        }
+
+        long estimateBytes() {
+            long bytes = 64;
+            for (Map.Entry<String, Integer> id : ids.entrySet()) {
+                // Entrada do HashMap com a chave normalizada, o valor original e a lista de livros do valor.
+                bytes += 48 + stringBytes(id.getKey()) + stringBytes(values[id.getValue()]) + 16 + 4L * booksByValue[id.getValue()].length;
+            }
+            for (int[] bookValues : valuesByBook) {
+                bytes += 16 + 4L * bookValues.length;
+            }
+            return bytes;
+        }
+
+        void filter(List<String> selected, BitSet matches) {
+            if (selected == null || selected.isEmpty()) {
+                return;
+            }
+            BitSet any = new BitSet(matches.size());
+            for (String value : selected) {
+                Integer id = ids.get(normalize(value));
+                if (id != null) {
+                    for (int book : booksByValue[id]) {
+                        any.set(book);
+                    }
+                }
+            }
+            matches.and(any);
+        }
+
+        List<FacetCount> count(BitSet matches, int limit) {
+            int[] counts = new int[values.length];
+            for (int book = matches.nextSetBit(0); book >= 0; book = matches.nextSetBit(book + 1)) {
+                for (int id : valuesByBook[book]) {
+                    counts[id]++;
+                }
+            }
+            // Heap dos limit melhores ids (o pior no topo), sem ordenar todos os valores da faceta.
+            Comparator<Integer> ranking = (a, b) -> counts[a] != counts[b]
+                    ? Integer.compare(counts[b], counts[a]) : values[a].compareTo(values[b]);
+            PriorityQueue<Integer> best = new PriorityQueue<>(Math.max(1, limit), ranking.reversed());
+            for (int id = 0; id < counts.length && limit > 0; id++) {
+                if (counts[id] == 0) {
+                    continue;
+                }
+                if (best.size() < limit) {
+                    best.add(id);
+                } else if (ranking.compare(id, best.peek()) < 0) {
+                    best.poll();
+                    best.add(id);
+                }
+            }
+            return best.stream()
+                    .sorted(ranking)
+                    .map(id -> new FacetCount(values[id], counts[id]))
+                    .toList();
+        }
+    }
+
+    private static final class IntList {
+
+        private int[] items = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(items, size);
+        }
+    }
+}
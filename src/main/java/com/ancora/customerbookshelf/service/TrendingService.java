@@ -0,0 +1,246 @@
+package com.ancora.customerbookshelf.service;
+
+import com.ancora.customerbookshelf.dto.BookDTO;
+import com.ancora.customerbookshelf.dto.TrendingBooksDTO;
+import com.ancora.customerbookshelf.dto.TrendingBooksDTO.TrendingBook;
+import com.ancora.customerbookshelf.exception.InvalidRequestException;
+import com.ancora.customerbookshelf.mapper.BookMapper;
+import com.ancora.customerbookshelf.repository.BookRepository;
+import com.ancora.customerbookshelf.repository.TrendingJdbcRepository;
+import com.ancora.customerbookshelf.repository.TrendingJdbcRepository.DailyCount;
+import com.ancora.customerbookshelf.util.TopK;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ranking dos livros mais favoritados nos últimos {@code trending.window-days} dias, sem {@code GROUP BY} sobre
+ * {@code customer_favorite_books}. Cada {@link FavoriteChangedEvent} confirmado soma +1 ou -1 em um {@link LongAdder}
+ * do livro no balde do dia, então requisições concorrentes não disputam o mesmo contador.
+ * <p>
+ * A cada {@code trending.flush-interval-ms} o que ainda não foi gravado vira um incremento em
+ * {@code book_favorite_daily}; a cada {@code trending.reload-interval-ms} (e ao subir) a janela é relida da tabela,
+ * o que traz de volta as contagens depois de um restart e soma as de outras instâncias. O top-N é recalculado em
+ * memória a cada {@code trending.snapshot-interval-ms} e a leitura só devolve o snapshot pronto.
+ */
+@Service
+@ConditionalOnProperty(name = "trending.enabled", havingValue = "true")
+@Slf4j
+public class TrendingService {
+
+    private final TrendingJdbcRepository trendingJdbcRepository;
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int windowDays;
+    private final int snapshotSize;
+    private final int retentionDays;
+    private final long reloadIntervalMs;
+    private final Counter flushedRows;
+    private final ConcurrentMap<LocalDate, ConcurrentMap<String, Tally>> days = new ConcurrentHashMap<>();
+    private final Map<String, BookDTO> books = new ConcurrentHashMap<>();
+    private long lastReloadAt;
+    private volatile TrendingBooksDTO snapshot;
+
+    public TrendingService(TrendingJdbcRepository trendingJdbcRepository,
+                           BookRepository bookRepository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${trending.window-days}") int windowDays,
+                           @Value("${trending.snapshot-size}") int snapshotSize,
+                           @Value("${trending.retention-days}") int retentionDays,
+                           @Value("${trending.reload-interval-ms}") long reloadIntervalMs) {
+        this.trendingJdbcRepository = trendingJdbcRepository;
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.windowDays = windowDays;
+        this.snapshotSize = snapshotSize;
+        this.retentionDays = Math.max(retentionDays, windowDays);
+        this.reloadIntervalMs = reloadIntervalMs;
+        this.flushedRows = Counter.builder("trending.flushed.rows")
+                .description("Per-book daily deltas written to book_favorite_daily")
+                .register(meterRegistry);
+        this.snapshot = TrendingBooksDTO.builder().windowDays(windowDays).books(List.of()).build();
+    }
+
+    public TrendingBooksDTO top(int limit) {
+        if (limit < 1 || limit > snapshotSize) {
+            throw new InvalidRequestException("limit must be between 1 and " + snapshotSize + ".");
+        }
+        TrendingBooksDTO current = snapshot;
+        if (current.getBooks().size() <= limit) {
+            return current;
+        }
+        return TrendingBooksDTO.builder()
+                .windowDays(current.getWindowDays())
+                .computedAt(current.getComputedAt())
+                .books(current.getBooks().subList(0, limit))
+                .build();
+    }
+
+    @TransactionalEventListener
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        ConcurrentMap<String, Tally> today = days.computeIfAbsent(LocalDate.now(), ignored -> new ConcurrentHashMap<>());
+        long delta = event.added() ? 1 : -1;
+        for (String isbn : event.isbns()) {
+            today.computeIfAbsent(isbn, ignored -> new Tally()).local.add(delta);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${trending.flush-interval-ms}")
+    public void flushAndReload() {
+        try {
+            flush();
+            if (System.currentTimeMillis() - lastReloadAt >= reloadIntervalMs) {
+                reload();
+                lastReloadAt = System.currentTimeMillis();
+            }
+        } catch (Exception e) {
+            // Os deltas não gravados continuam nos contadores e vão na próxima execução.
+            log.warn("Trending counters flush failed, retrying in the next run: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Trending counters flush on shutdown failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${trending.snapshot-interval-ms}")
+    public void refreshSnapshot() {
+        LocalDate from = windowStart();
+        Map<String, Long> totals = new HashMap<>();
+        days.forEach((day, tallies) -> {
+            if (!day.isBefore(from)) {
+                tallies.forEach((isbn, tally) -> totals.merge(isbn, tally.total(), Long::sum));
+            }
+        });
+        TopK<String> topK = new TopK<>(totals.size());
+        totals.forEach((isbn, count) -> {
+            if (count > 0) {
+                topK.add(isbn, count);
+            }
+        });
+        // O TopK devolve os empates com o último colocado; o ISBN desempata e o corte fica em snapshotSize.
+        List<String> isbns = topK.top(snapshotSize).stream()
+                .sorted(Comparator.comparing((String isbn) -> totals.get(isbn)).reversed().thenComparing(Comparator.naturalOrder()))
+                .limit(snapshotSize)
+                .toList();
+
+        loadMissingBooks(isbns);
+        List<TrendingBook> ranking = new ArrayList<>(isbns.size());
+        for (String isbn : isbns) {
+            BookDTO book = books.get(isbn);
+            if (book != null) {
+                ranking.add(new TrendingBook(book, totals.get(isbn)));
+            }
+        }
+        snapshot = TrendingBooksDTO.builder()
+                .windowDays(windowDays)
+                .computedAt(LocalDateTime.now())
+                .books(List.copyOf(ranking))
+                .build();
+    }
+
+    private void flush() {
+        List<DailyCount> deltas = new ArrayList<>();
+        List<Runnable> commits = new ArrayList<>();
+        days.forEach((day, tallies) -> tallies.forEach((isbn, tally) -> {
+            long local = tally.local.sum();
+            if (local != tally.flushed) {
+                deltas.add(new DailyCount(isbn, day, local - tally.flushed));
+                commits.add(() -> tally.flushed = local);
+            }
+        }));
+        if (deltas.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> trendingJdbcRepository.increment(deltas));
+        commits.forEach(Runnable::run);
+        flushedRows.increment(deltas.size());
+        log.debug("Flushed {} trending deltas.", deltas.size());
+    }
+
+    /**
+     * Relê a janela da tabela. O valor gravado já inclui o que esta instância gravou, então a base de cada contador
+     * é o valor da tabela menos o que ela mesma já gravou; o que ainda não foi gravado continua só em memória.
+     */
+    private void reload() {
+        LocalDate from = windowStart();
+        List<DailyCount> stored = readOnlyTransaction.execute(status -> trendingJdbcRepository.findSince(from));
+
+        days.keySet().removeIf(day -> day.isBefore(from) && days.get(day).values().stream().allMatch(Tally::isFlushed));
+        Map<LocalDate, Map<String, Long>> storedByDay = new HashMap<>();
+        for (DailyCount count : stored) {
+            storedByDay.computeIfAbsent(count.day(), ignored -> new HashMap<>()).put(count.isbn(), count.favorites());
+            days.computeIfAbsent(count.day(), ignored -> new ConcurrentHashMap<>()).computeIfAbsent(count.isbn(), ignored -> new Tally());
+        }
+        days.forEach((day, tallies) -> {
+            Map<String, Long> dayTotals = storedByDay.getOrDefault(day, Map.of());
+            tallies.forEach((isbn, tally) -> tally.base = dayTotals.getOrDefault(isbn, 0L) - tally.flushed);
+        });
+
+        int deleted = transactionTemplate.execute(status -> trendingJdbcRepository.deleteBefore(LocalDate.now().minusDays(retentionDays)));
+        // Metadados relidos a cada recarga, para que o ranking não mostre títulos ou preços antigos indefinidamente.
+        books.clear();
+        log.debug("Reloaded {} trending rows since {} ({} expired rows deleted).", stored.size(), from, deleted);
+    }
+
+    private void loadMissingBooks(List<String> isbns) {
+        List<String> missing = isbns.stream().filter(isbn -> !books.containsKey(isbn)).toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        readOnlyTransaction.executeWithoutResult(status ->
+                bookRepository.findAllById(missing).forEach(book -> books.put(book.getIsbn(), BookMapper.toDTO(book))));
+    }
+
+    private LocalDate windowStart() {
+        return LocalDate.now().minusDays(windowDays - 1L);
+    }
+
+    /**
+     * Contador de um livro em um dia: {@code base} é o que veio da tabela (de outras instâncias ou de antes do
+     * restart) e {@code local} o que esta instância contou; {@code flushed} é a parte de {@code local} já gravada.
+     * Só a thread do agendador escreve {@code base} e {@code flushed}.
+     */
+    private static final class Tally {
+
+        private final LongAdder local = new LongAdder();
+        private volatile long base;
+        private long flushed;
+
+        long total() {
+            return base + local.sum();
+        }
+
+        boolean isFlushed() {
+            return local.sum() == flushed;
+        }
+    }
+}
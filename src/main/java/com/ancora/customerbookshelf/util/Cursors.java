@@ -0,0 +1,72 @@
+package com.ancora.customerbookshelf.util;
+
+import com.ancora.customerbookshelf.dto.CursorPageDTO;
+import com.ancora.customerbookshelf.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Paginação por cursor (keyset): o cursor é a última chave devolvida, codificada em Base64 URL-safe
+ * para que o cliente a trate como opaca. A consulta busca {@code size + 1} linhas com
+ * {@code WHERE chave > ?}; a linha extra só indica se existe próxima página, sem {@code COUNT}.
+ */
+public final class Cursors {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private Cursors() {
+    }
+
+    public static String encode(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return a chave do cursor, ou {@code null} para um cursor vazio (primeira página)
+     */
+    public static String decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor.");
+        }
+    }
+
+    public static Long decodeLong(String cursor) {
+        String key = decode(cursor);
+        if (key == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(key);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid cursor.");
+        }
+    }
+
+    public static int pageSize(int requested) {
+        if (requested < 1) {
+            throw new InvalidRequestException("Page size must be greater than zero.");
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Monta a página a partir de até {@code size + 1} linhas já ordenadas pela chave.
+     */
+    public static <E, T> CursorPageDTO<T> page(List<E> rows, int size, Function<E, String> keyOf, Function<List<E>, List<T>> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+        return CursorPageDTO.<T>builder()
+                .content(mapper.apply(pageRows))
+                .size(pageRows.size())
+                .nextCursor(hasNext ? encode(keyOf.apply(pageRows.get(pageRows.size() - 1))) : null)
+                .build();
+    }
+}
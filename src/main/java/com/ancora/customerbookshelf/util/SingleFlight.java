@@ -0,0 +1,75 @@
+package com.ancora.customerbookshelf.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa chamadas concorrentes pela mesma chave: a primeira executa o loader e as demais
+ * aguardam o mesmo resultado (ou a mesma exceção) em vez de repetir o trabalho.
+ * Nada é guardado depois que a chamada termina; isso não é um cache.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalescedCalls = new LongAdder();
+
+    public Result<V> execute(K key, Supplier<V> loader) {
+        Flight<V> flight = new Flight<>();
+        Flight<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            existing.followers.incrementAndGet();
+            coalescedCalls.increment();
+            return new Result<>(await(existing.future), true, 0);
+        }
+
+        try {
+            V value = loader.get();
+            flight.future.complete(value);
+            return new Result<>(value, false, flight.followers.get());
+        } catch (Throwable ex) {
+            flight.future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    public long getCoalescedCalls() {
+        return coalescedCalls.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * @param coalesced {@code true} quando o chamador reaproveitou a execução de outra thread.
+     * @param followers quantos chamadores aguardaram a execução feita por este (só para quem executou).
+     */
+    public record Result<V>(V value, boolean coalesced, int followers) {
+    }
+
+    private static final class Flight<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private final AtomicInteger followers = new AtomicInteger();
+    }
+}
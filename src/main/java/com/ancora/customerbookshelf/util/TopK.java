@@ -0,0 +1,111 @@
+package com.ancora.customerbookshelf.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contagem de frequência com seleção dos k mais frequentes. Os contadores são {@code long} primitivos
+ * (sem boxing a cada incremento) e a seleção usa um heap de {@code long} de tamanho k, sem ordenar tudo.
+ * Empates com o k-ésimo colocado também entram no resultado, então {@code top(1)} devolve todos os
+ * itens empatados na frequência máxima.
+ */
+public final class TopK<T> {
+
+    private final Map<T, long[]> counters;
+
+    public TopK() {
+        this.counters = new HashMap<>();
+    }
+
+    public TopK(int expectedKeys) {
+        this.counters = HashMap.newHashMap(expectedKeys);
+    }
+
+    public void add(T key) {
+        add(key, 1);
+    }
+
+    public void add(T key, long count) {
+        counters.computeIfAbsent(key, ignored -> new long[1])[0] += count;
+    }
+
+    /**
+     * @return os itens mais frequentes, do mais para o menos frequente, incluindo empates com o k-ésimo
+     */
+    public List<T> top(int k) {
+        if (k < 1 || counters.isEmpty()) {
+            return Collections.emptyList();
+        }
+        long threshold = kthLargestCount(k);
+
+        List<Map.Entry<T, long[]>> selected = new ArrayList<>();
+        for (Map.Entry<T, long[]> entry : counters.entrySet()) {
+            if (entry.getValue()[0] >= threshold) {
+                selected.add(entry);
+            }
+        }
+        selected.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+
+        List<T> result = new ArrayList<>(selected.size());
+        for (Map.Entry<T, long[]> entry : selected) {
+            result.add(entry.getKey());
+        }
+        return result;
+    }
+
+    private long kthLargestCount(int k) {
+        long[] heap = new long[Math.min(k, counters.size())];
+        int size = 0;
+        for (long[] counter : counters.values()) {
+            long count = counter[0];
+            if (size < heap.length) {
+                heap[size] = count;
+                siftUp(heap, size++);
+            } else if (count > heap[0]) {
+                heap[0] = count;
+                siftDown(heap, size);
+            }
+        }
+        return heap[0];
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= heap[index]) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && heap[left] < heap[smallest]) {
+                smallest = left;
+            }
+            if (right < size && heap[right] < heap[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(heap, smallest, index);
+            index = smallest;
+        }
+    }
+
+    private static void swap(long[] heap, int i, int j) {
+        long tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+}
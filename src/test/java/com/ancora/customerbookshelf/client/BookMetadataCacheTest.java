@@ -0,0 +1,52 @@
+package com.ancora.customerbookshelf.client;
+
+import com.ancora.customerbookshelf.dto.brasilapi.BookResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Falhas da API não ficam no cache: nem exceções nem {@link Error}s deixam um future pendente para o ISBN.
+ */
+class BookMetadataCacheTest {
+
+    private static final String ISBN = "9780000000019";
+
+    private final BrasilApiClient brasilApiClient = mock(BrasilApiClient.class);
+    private final BookMetadataCache cache = new BookMetadataCache(brasilApiClient, 100, 60_000, 60_000);
+
+    @Test
+    void errorFromTheClientIsNotCached() {
+        when(brasilApiClient.fetchBookFromBrasilApi(ISBN)).thenThrow(new AssertionError("stub failure")).thenReturn(book());
+
+        assertThrows(AssertionError.class, () -> cache.lookup(ISBN));
+
+        BookResponseDTO book = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> cache.lookup(ISBN));
+        assertEquals(ISBN, book.getIsbn());
+        verify(brasilApiClient, times(2)).fetchBookFromBrasilApi(ISBN);
+    }
+
+    @Test
+    void runtimeFailureFromTheClientIsNotCached() {
+        when(brasilApiClient.fetchBookFromBrasilApi(ISBN)).thenThrow(new IllegalStateException("provider down")).thenReturn(book());
+
+        assertThrows(IllegalStateException.class, () -> cache.lookup(ISBN));
+
+        assertEquals(ISBN, assertTimeoutPreemptively(Duration.ofSeconds(5), () -> cache.lookup(ISBN)).getIsbn());
+        assertEquals(1, cache.estimatedSize());
+    }
+
+    private static BookResponseDTO book() {
+        BookResponseDTO book = new BookResponseDTO();
+        book.setIsbn(ISBN);
+        return book;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ancora.customerbookshelf.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Roteamento com bancos H2 separados para primário e réplica: cada um responde com o próprio nome em {@code node}.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private HikariDataSource primary;
+
+    @BeforeEach
+    void createPrimary() {
+        primary = pool("primary", "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1", 2, 5000);
+        createNode(primary, "primary");
+    }
+
+    @AfterEach
+    void closePools() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndWritesThePrimary() {
+        HikariDataSource replica = pool("replica", "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1", 2, 5000);
+        createNode(replica, "replica");
+        DataSource dataSource = routed(new ReplicaRoutingDataSource(primary, List.of(replica), "", 5, meterRegistry));
+
+        assertEquals("replica", readNode(dataSource, true));
+        assertEquals("primary", readNode(dataSource, false));
+        assertEquals(1.0, healthyReplicas());
+    }
+
+    @Test
+    void readOnlyTransactionsFallBackToThePrimaryWhenTheReplicaIsDown() {
+        HikariDataSource replica = pool("down", "jdbc:h2:tcp://localhost:1/mem:routing-down", 2, 250);
+        DataSource dataSource = routed(new ReplicaRoutingDataSource(primary, List.of(replica), "", 5, meterRegistry));
+
+        assertEquals("primary", readNode(dataSource, true));
+        assertEquals(0.0, healthyReplicas());
+        assertEquals(1.0, meterRegistry.get("datasource.routing.reads").tag("target", "primary_fallback").counter().count());
+    }
+
+    @Test
+    void exhaustedReplicaPoolFallsBackWithoutLeavingTheRotation() throws Exception {
+        HikariDataSource replica = pool("busy", "jdbc:h2:mem:routing-busy;DB_CLOSE_DELAY=-1", 1, 250);
+        createNode(replica, "replica");
+        DataSource dataSource = routed(new ReplicaRoutingDataSource(primary, List.of(replica), "", 5, meterRegistry));
+
+        try (Connection ignored = replica.getConnection()) {
+            assertEquals("primary", readNode(dataSource, true));
+            assertEquals(1.0, healthyReplicas());
+        }
+        assertEquals("replica", readNode(dataSource, true));
+    }
+
+    @Test
+    void connectionsWithOtherCredentialsAreNotSupported() {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(), "", 5, meterRegistry);
+
+        assertThrows(SQLFeatureNotSupportedException.class, () -> routing.getConnection("user", "password"));
+    }
+
+    private HikariDataSource pool(String name, String url, int maximumPoolSize, long connectionTimeoutMs) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername("sa");
+        pool.setPassword("");
+        pool.setMaximumPoolSize(maximumPoolSize);
+        pool.setMinimumIdle(0);
+        pool.setConnectionTimeout(connectionTimeoutMs);
+        pool.setInitializationFailTimeout(-1);
+        pools.add(pool);
+        return pool;
+    }
+
+    private DataSource routed(ReplicaRoutingDataSource routing) {
+        return new ReadReplicaDataSourceConfig().dataSource(primary, routing);
+    }
+
+    private String readNode(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private double healthyReplicas() {
+        return meterRegistry.get("datasource.replicas.healthy").gauge().value();
+    }
+
+    private static void createNode(DataSource dataSource, String name) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbcTemplate.update("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+    }
+}
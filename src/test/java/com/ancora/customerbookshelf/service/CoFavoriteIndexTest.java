@@ -0,0 +1,88 @@
+package com.ancora.customerbookshelf.service;
+
+import com.ancora.customerbookshelf.service.CoFavoriteIndex.Recommendation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * As atualizações incrementais ({@link CoFavoriteIndex#apply}) têm que deixar o índice igual a uma montagem do zero
+ * sobre as mesmas estantes, inclusive quando uma estante passa de {@code maxShelfSize} ou volta para dentro dele.
+ * Os vizinhos por livro são folgados para que a aproximação Space-Saving não entre na comparação.
+ */
+class CoFavoriteIndexTest {
+
+    private static final int NEIGHBORS_PER_BOOK = 64;
+    private static final int MAX_SHELF_SIZE = 3;
+
+    @Test
+    void shelfCrossingTheLimitLeavesAndReentersTheIndex() {
+        CoFavoriteIndex index = CoFavoriteIndex.builder(NEIGHBORS_PER_BOOK, MAX_SHELF_SIZE)
+                .add(1L, "A").add(1L, "B").add(1L, "C")
+                .build(1);
+        assertEquals(List.of(new Recommendation("B", 1), new Recommendation("C", 1)), index.similar("A", 10));
+
+        index.apply(new FavoriteChangedEvent(1L, List.of("D"), true));
+        assertEquals(List.of(), index.similar("A", 10));
+        assertEquals(0, index.pairs());
+
+        index.apply(new FavoriteChangedEvent(1L, List.of("B"), false));
+        assertEquals(List.of(new Recommendation("C", 1), new Recommendation("D", 1)), index.similar("A", 10));
+        assertEquals(List.of(), index.similar("B", 10));
+    }
+
+    @Test
+    void incrementalUpdatesMatchARebuild() {
+        Random random = new Random(42);
+        List<String> isbns = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            isbns.add("97800000000" + String.format("%02d", i));
+        }
+        Map<Long, Set<String>> shelves = new TreeMap<>();
+        for (long customer = 1; customer <= 6; customer++) {
+            shelves.put(customer, new LinkedHashSet<>());
+        }
+        for (int i = 0; i < 8; i++) {
+            shelves.get(1L + random.nextInt(6)).add(isbns.get(random.nextInt(isbns.size())));
+        }
+        CoFavoriteIndex index = build(shelves);
+
+        for (int step = 1; step <= 2000; step++) {
+            long customer = 1L + random.nextInt(6);
+            String isbn = isbns.get(random.nextInt(isbns.size()));
+            boolean added = random.nextInt(100) < 55;
+            if (added) {
+                shelves.get(customer).add(isbn);
+            } else {
+                shelves.get(customer).remove(isbn);
+            }
+            index.apply(new FavoriteChangedEvent(customer, List.of(isbn), added));
+
+            if (step % 50 == 0) {
+                assertSameNeighbors(build(shelves), index, isbns, step);
+            }
+        }
+    }
+
+    private static CoFavoriteIndex build(Map<Long, Set<String>> shelves) {
+        CoFavoriteIndex.Builder builder = CoFavoriteIndex.builder(NEIGHBORS_PER_BOOK, MAX_SHELF_SIZE);
+        shelves.forEach((customer, shelf) -> shelf.forEach(isbn -> builder.add(customer, isbn)));
+        return builder.build(1);
+    }
+
+    private static void assertSameNeighbors(CoFavoriteIndex expected, CoFavoriteIndex actual, List<String> isbns, int step) {
+        assertEquals(expected.pairs(), actual.pairs(), () -> "pairs after step " + step);
+        for (String isbn : isbns) {
+            assertEquals(expected.similar(isbn, NEIGHBORS_PER_BOOK), actual.similar(isbn, NEIGHBORS_PER_BOOK),
+                    () -> "neighbors of " + isbn + " after step " + step);
+        }
+    }
+}
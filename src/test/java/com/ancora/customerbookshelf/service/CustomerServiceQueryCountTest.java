@@ -0,0 +1,113 @@
+package com.ancora.customerbookshelf.service;
+
+import com.ancora.customerbookshelf.dto.CustomerDTO;
+import com.ancora.customerbookshelf.model.Book;
+import com.ancora.customerbookshelf.model.Customer;
+import com.ancora.customerbookshelf.repository.BookRepository;
+import com.ancora.customerbookshelf.repository.CustomerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Quantidade de consultas das leituras de clientes: o resumo de favoritos vem dos contadores pré-calculados,
+ * então uma página inteira custa um número fixo de statements, independente do tamanho e dos favoritos.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerServiceQueryCountTest {
+
+    private static final int CUSTOMERS = 25;
+    private static final int BOOKS = 5;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private FavoriteBookService favoriteBookService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long customerId;
+
+    @BeforeAll
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertTrue(statistics.isStatisticsEnabled(), "hibernate.generate_statistics must be enabled in the test profile");
+
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(Book.builder()
+                    .isbn("97800000070" + i)
+                    .title("Book " + i)
+                    .authors(List.of("Author " + i, "Author " + (i + 1)))
+                    .subjects(List.of("Subject " + (i % 2)))
+                    .build());
+        }
+        bookRepository.saveAll(books);
+
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer customer = customerRepository.save(Customer.builder()
+                    .name("Customer " + i)
+                    .cpf(String.format("%011d", 70_000 + i))
+                    .email("query-count-" + i + "@example.com")
+                    .build());
+            for (Book book : books) {
+                favoriteBookService.addBookToFavorites(customer.getId(), book.getIsbn());
+            }
+            customerId = customer.getId();
+        }
+    }
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics.clear();
+    }
+
+    @Test
+    void getAllCustomersUsesFixedNumberOfStatementsPerPage() {
+        Page<CustomerDTO> page = customerService.getAllCustomers(PageRequest.of(0, 20), 50);
+
+        assertEquals(20, page.getNumberOfElements());
+        // O banco é compartilhado com outras classes de teste, então a página pode trazer clientes de outros cenários.
+        assertTrue(page.getContent().stream().allMatch(customer -> customer.getFavoritesSummary() != null));
+        // Página, total e contadores do resumo.
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                () -> "Expected at most 3 statements, got " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getCustomerByIdUsesFixedNumberOfStatements() {
+        CustomerDTO customer = customerService.getCustomerById(customerId, 50);
+
+        assertEquals(BOOKS, customer.getFavoritesSummary().getCount());
+        assertEquals(BOOKS + 1, customer.getFavoritesSummary().getMostFrequentAuthors().size());
+        // Cliente e contadores do resumo.
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                () -> "Expected at most 2 statements, got " + statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,177 @@
+package com.ancora.customerbookshelf.service;
+
+import com.ancora.customerbookshelf.model.Book;
+import com.ancora.customerbookshelf.model.Customer;
+import com.ancora.customerbookshelf.repository.BookRepository;
+import com.ancora.customerbookshelf.repository.CustomerRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Chamadas simultâneas para o mesmo cliente, ISBN e {@code Idempotency-Key}: cada favorito é gravado (ou removido)
+ * uma única vez e o resumo continua igual às linhas da tabela de junção.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FavoriteBookServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final String AUTHOR = "Concurrency Author";
+
+    @Autowired
+    private FavoriteBookService favoriteBookService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    private final AtomicInteger customers = new AtomicInteger();
+
+    @BeforeAll
+    void seedBooks() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            books.add(Book.builder()
+                    .isbn("97800000180" + i)
+                    .title("Concurrent " + i)
+                    .authors(List.of(AUTHOR))
+                    .subjects(List.of("Concurrency"))
+                    .build());
+        }
+        bookRepository.saveAll(books);
+    }
+
+    @AfterAll
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentAddsInsertTheFavoriteOnce() throws Exception {
+        Long customerId = newCustomer();
+
+        List<Boolean> added = runConcurrently(() -> favoriteBookService.addBookToFavorites(customerId, "978000001800"));
+
+        assertEquals(1, added.stream().filter(Boolean::booleanValue).count());
+        assertSummaryMatchesFavorites(customerId, 1);
+    }
+
+    @Test
+    void concurrentRemovesDeleteTheFavoriteOnce() throws Exception {
+        Long customerId = newCustomer();
+        favoriteBookService.addBookToFavorites(customerId, "978000001800");
+        favoriteBookService.addBookToFavorites(customerId, "978000001801");
+
+        List<Boolean> removed = runConcurrently(() -> favoriteBookService.removeBookFromFavorites(customerId, "978000001800"));
+
+        assertEquals(1, removed.stream().filter(Boolean::booleanValue).count());
+        assertSummaryMatchesFavorites(customerId, 1);
+    }
+
+    @Test
+    void concurrentAddsAndRemovesKeepTheSummaryConsistent() throws Exception {
+        Long customerId = newCustomer();
+        AtomicInteger calls = new AtomicInteger();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < 10; i++) {
+                String isbn = "97800000180" + (i % 3);
+                if (calls.incrementAndGet() % 2 == 0) {
+                    favoriteBookService.addBookToFavorites(customerId, isbn);
+                } else {
+                    favoriteBookService.removeBookFromFavorites(customerId, isbn);
+                }
+            }
+            return null;
+        });
+
+        assertSummaryMatchesFavorites(customerId, countFavorites(customerId));
+    }
+
+    @Test
+    void concurrentCallsWithTheSameIdempotencyKeyExecuteOnce() throws Exception {
+        Long customerId = newCustomer();
+        String operation = "POST /customers/" + customerId + "/favorites/978000001803";
+        AtomicInteger executions = new AtomicInteger();
+
+        List<IdempotencyService.Outcome> outcomes = runConcurrently(() -> idempotencyService.execute("key-" + customerId, operation, () -> {
+            executions.incrementAndGet();
+            return favoriteBookService.addBookToFavorites(customerId, "978000001803") ? HttpStatus.CREATED : HttpStatus.OK;
+        }));
+
+        assertEquals(1, executions.get());
+        assertEquals(1, outcomes.stream().filter(outcome -> !outcome.replayed()).count());
+        assertEquals(THREADS - 1, outcomes.stream().filter(IdempotencyService.Outcome::replayed).count());
+        assertEquals(THREADS, outcomes.stream().filter(outcome -> outcome.status() == HttpStatus.CREATED).count());
+        assertSummaryMatchesFavorites(customerId, 1);
+    }
+
+    private <T> List<T> runConcurrently(Callable<T> call) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return call.call();
+            }));
+        }
+        start.countDown();
+        List<T> results = new ArrayList<>(THREADS);
+        for (Future<T> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    private void assertSummaryMatchesFavorites(Long customerId, long expected) {
+        assertEquals(expected, countFavorites(customerId));
+        assertEquals(expected, jdbcTemplate.queryForObject(
+                "SELECT favorites_count FROM customer WHERE id = ?", Long.class, customerId));
+        Long authorCount = jdbcTemplate.query(
+                "SELECT favorite_count FROM customer_favorite_term WHERE customer_id = ? AND term_type = 'AUTHOR' AND term = ?",
+                rs -> rs.next() ? rs.getLong(1) : 0L, customerId, AUTHOR);
+        assertEquals(expected, authorCount);
+    }
+
+    private long countFavorites(Long customerId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer_favorite_books WHERE customer_id = ?", Long.class, customerId);
+    }
+
+    private Long newCustomer() {
+        int n = customers.incrementAndGet();
+        return customerRepository.save(Customer.builder()
+                .name("Concurrent " + n)
+                .cpf(String.format("%011d", 80_000 + n))
+                .email("concurrent-" + n + "@example.com")
+                .build()).getId();
+    }
+}